@@ -0,0 +1,115 @@
+package com.example.demo.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs each task on its own virtual thread, with a semaphore capping how many run at
+ * once. What happens when no permit is free depends on the submitter:
+ *
+ * <ul>
+ *   <li>{@link #blocking}: the submitter waits for a permit, which pushes back on the
+ *       socket reader instead of queueing unboundedly when Mongo/Postgres are slow. Only
+ *       for the inbound channel, where the submitter is that session's reader.</li>
+ *   <li>{@link #handOff}: the task is parked and started by the next task to finish, so
+ *       {@code execute} never blocks. For the outbound channel, where the submitter is
+ *       the broker or relay (a Netty IO thread) serving every session on the node;
+ *       per-session depth is bounded by OutboundBackpressureInterceptor, which counts
+ *       parked frames as pending.</li>
+ * </ul>
+ */
+@Slf4j
+public class BoundedVirtualThreadExecutor implements Executor, AutoCloseable {
+
+    private final Semaphore permits;
+    private final ExecutorService delegate;
+    private final boolean blockSubmitter;
+    private final Queue<Runnable> parked = new ConcurrentLinkedQueue<>();
+
+    private BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency, boolean blockSubmitter) {
+        ThreadFactory factory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+        this.permits = new Semaphore(maxConcurrency);
+        this.delegate = Executors.newThreadPerTaskExecutor(factory);
+        this.blockSubmitter = blockSubmitter;
+    }
+
+    public static BoundedVirtualThreadExecutor blocking(String threadNamePrefix, int maxConcurrency) {
+        return new BoundedVirtualThreadExecutor(threadNamePrefix, maxConcurrency, true);
+    }
+
+    public static BoundedVirtualThreadExecutor handOff(String threadNamePrefix, int maxConcurrency) {
+        return new BoundedVirtualThreadExecutor(threadNamePrefix, maxConcurrency, false);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!blockSubmitter) {
+            parked.add(task);
+            dispatch();
+            return;
+        }
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for an executor permit", e);
+        }
+        start(task);
+    }
+
+    /**
+     * Starts parked tasks while permits are free. Called after every park and every
+     * release, so a task parked concurrently with a release is never stranded.
+     */
+    private void dispatch() {
+        while (!parked.isEmpty() && permits.tryAcquire()) {
+            Runnable next = parked.poll();
+            if (next == null) {
+                permits.release();
+                continue;
+            }
+            start(next);
+        }
+    }
+
+    private void start(Runnable task) {
+        try {
+            delegate.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                    if (!blockSubmitter) {
+                        dispatch();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /** Hand-off mode only: tasks waiting for a permit */
+    public int parkedTasks() {
+        return parked.size();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.UUID;
+
+/**
+ * Identity of this backend instance. Resolved once so every component (queue
+ * declaration, listener, node directory) agrees on the same id.
+ */
+@Component
+@Getter
+public class ClusterNode {
+
+    private final String nodeId;
+
+    public ClusterNode(@Value("${chat.node-id:}") String nodeId) {
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+    }
+
+    public String userChannelQueue() {
+        return RabbitMQConfig.USER_CHANNEL_QUEUE_PREFIX + nodeId;
+    }
+
+    public String tailCacheQueue() {
+        return RabbitMQConfig.TAIL_CACHE_QUEUE_PREFIX + nodeId;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.demo.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Explains the hot repository queries once the application is ready (after Mongock
+ * has run) and refuses to start if any of them would be served by a COLLSCAN or an
+ * in-memory SORT stage.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "chat.mongo.index-verification", name = "enabled", havingValue = "true")
+public class MongoIndexVerifier {
+
+    private static final List<String> FORBIDDEN_STAGES = List.of("COLLSCAN", "SORT");
+
+    private final MongoTemplate mongoTemplate;
+
+    record QueryCheck(String name, String collection, Document filter, Document sort) {
+    }
+
+    static List<QueryCheck> queryChecks() {
+        return List.of(
+            new QueryCheck(
+                "ConversationRepository.findByParticipantIdsContainingAndStatusOrderByUpdatedAtDesc",
+                "conversations",
+                new Document("participantIds", 0L).append("status", "ACTIVE"),
+                new Document("updatedAt", -1)
+            ),
+            new QueryCheck(
+                "ConversationRepository.findByTypeAndParticipantIdsAndStatus",
+                "conversations",
+                new Document("type", "DIRECT")
+                    .append("participantIds", new Document("$all", List.of(0L, 1L)).append("$size", 2))
+                    .append("status", "ACTIVE"),
+                null
+            ),
+            new QueryCheck(
+                "ConversationRepository.findByDirectKeyAndStatus",
+                "conversations",
+                new Document("directKey", "0:1").append("status", "ACTIVE"),
+                null
+            ),
+            new QueryCheck(
+                "MessageRepository.findByConversationIdAndStatusOrderBySentAtDesc",
+                "messages",
+                new Document("conversationId", "").append("status", "ACTIVE"),
+                new Document("sentAt", -1)
+            ),
+            new QueryCheck(
+                "MessageRepository.findUnreadMessagesByConversationAndUser",
+                "messages",
+                new Document("conversationId", "")
+                    .append("statusList", new Document("$elemMatch",
+                        new Document("userId", 0L).append("status", new Document("$ne", "READ"))))
+                    .append("status", "ACTIVE"),
+                null
+            ),
+            new QueryCheck(
+                "ChatSyncService.sync (conversations)",
+                "conversations",
+                new Document("participantIds", 0L).append("status", "ACTIVE")
+                    .append("changedAt", new Document("$gt", new Date(0))),
+                new Document("changedAt", 1).append("_id", 1)
+            ),
+            new QueryCheck(
+                "ChatSyncService.sync (messages)",
+                "messages",
+                new Document("conversationId", "").append("changedAt", new Document("$gt", new Date(0))),
+                new Document("changedAt", 1).append("_id", 1)
+            ),
+            new QueryCheck(
+                "ChatService.getChanges",
+                "messages",
+                new Document("conversationId", "").append("version", new Document("$gt", 0L)),
+                new Document("version", 1)
+            ),
+            new QueryCheck(
+                "ChatService.getChanges (superseded versions)",
+                "messages",
+                new Document("conversationId", "").append("supersededVersions",
+                    new Document("$elemMatch", new Document("$gt", 0L).append("$lte", 1L))),
+                null
+            ),
+            new QueryCheck(
+                "ConversationMemberService.readPositionsSince",
+                "conversation_members",
+                new Document("userId", 0L).append("lastReadAt", new Document("$gt", new Date(0))),
+                null
+            ),
+            new QueryCheck(
+                "ConversationMemberService.unreadCount",
+                "messages",
+                new Document("conversationId", "").append("status", "ACTIVE")
+                    .append("senderId", new Document("$ne", 0L))
+                    .append("sentAt", new Document("$gt", new Date(0))),
+                null
+            ),
+            new QueryCheck(
+                "ChatService.getMessagesAfter",
+                "messages",
+                new Document("conversationId", "").append("status", "ACTIVE")
+                    .append("sentAt", new Document("$gt", new Date(0))),
+                new Document("sentAt", 1).append("_id", 1)
+            ),
+            new QueryCheck(
+                "ConversationExportService.export",
+                "messages",
+                new Document("conversationId", ""),
+                new Document("sentAt", 1).append("_id", 1)
+            ),
+            new QueryCheck(
+                // The sentAt ordering is applied to the text matches only; no sort checked here
+                "MessageSearchService.search",
+                "messages",
+                new Document("$text", new Document("$search", "check").append("$language", "none"))
+                    .append("conversationId", new Document("$in", List.of("")))
+                    .append("status", "ACTIVE"),
+                null
+            ),
+            new QueryCheck(
+                "PostService.getFeed",
+                "posts",
+                new Document("status", "ACTIVE").append("createdAt", new Document("$lt", new Date())),
+                new Document("createdAt", -1).append("_id", -1)
+            ),
+            new QueryCheck(
+                "TimelineService.pulledEntries",
+                "posts",
+                new Document("userId", new Document("$in", List.of(1, 2))).append("status", "ACTIVE"),
+                new Document("createdAt", -1).append("_id", -1)
+            ),
+            new QueryCheck(
+                "CommentService.getCommentsByPostId",
+                "comments",
+                new Document("postId", "000000000000000000000000").append("parentId", null).append("status", "ACTIVE"),
+                new Document("createdAt", 1).append("_id", 1)
+            ),
+            new QueryCheck(
+                "UserContentCascade.deleteComments",
+                "comments",
+                new Document("userId", 0).append("status", "ACTIVE"),
+                null
+            ),
+            new QueryCheck(
+                "UserNodeDirectory.nodesFor",
+                "user_node_routes",
+                new Document("userId", new Document("$in", List.of(0L, 1L))),
+                null
+            ),
+            new QueryCheck(
+                "UserNodeDirectory.refresh",
+                "user_node_routes",
+                new Document("nodeId", ""),
+                null
+            )
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        List<String> violations = new ArrayList<>();
+
+        for (QueryCheck check : queryChecks()) {
+            var find = mongoTemplate.getCollection(check.collection()).find(check.filter());
+            if (check.sort() != null) {
+                find = find.sort(check.sort());
+            }
+
+            Document explain = find.explain();
+            Document queryPlanner = explain.get("queryPlanner", Document.class);
+            Object winningPlan = queryPlanner != null ? queryPlanner.get("winningPlan") : null;
+
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan, stages);
+
+            List<String> offending = stages.stream()
+                    .filter(FORBIDDEN_STAGES::contains)
+                    .distinct()
+                    .toList();
+
+            if (offending.isEmpty()) {
+                log.debug("Index check passed for {}: {}", check.name(), stages);
+            } else {
+                violations.add(check.name() + " -> " + offending);
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            violations.forEach(v -> log.error("❌ Unindexed query plan: {}", v));
+            throw new IllegalStateException("MongoDB index verification failed: " + violations);
+        }
+
+        log.info("✅ MongoDB index verification passed for {} queries", queryChecks().size());
+    }
+
+    private void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String stageName) {
+                stages.add(stageName);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-session outbound backpressure for the STOMP client outbound channel.
+ *
+ * <p>Depth is the number of frames accepted for a session that have not been written to
+ * its socket yet: incremented when a frame enters the outbound channel, decremented
+ * when the tracked session actually writes it. Past {@code drop-threshold} droppable
+ * destinations (typing, presence) are discarded for that session only; past
+ * {@code disconnect-threshold} the session is closed so one slow mobile client cannot
+ * hold outbound threads and buffers that everyone else needs. Chat messages are never
+ * dropped.
+ */
+@Component
+@Slf4j
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    private final Map<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+
+    private final int dropThreshold;
+    private final int disconnectThreshold;
+    private final List<String> droppablePrefixes;
+
+    private final DistributionSummary queueDepth;
+    private final Counter droppedCounter;
+    private final Counter slowConsumerCounter;
+
+    public OutboundBackpressureInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${chat.websocket.outbound.drop-threshold:64}") int dropThreshold,
+            @Value("${chat.websocket.outbound.disconnect-threshold:512}") int disconnectThreshold,
+            @Value("${chat.websocket.outbound.droppable-prefixes:/topic/typing.,/user-channel.presence}") List<String> droppablePrefixes) {
+        this.dropThreshold = dropThreshold;
+        this.disconnectThreshold = disconnectThreshold;
+        this.droppablePrefixes = droppablePrefixes;
+        this.queueDepth = DistributionSummary.builder("chat.websocket.outbound.queue.depth")
+                .description("Frames pending per WebSocket session when a new frame is enqueued")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.droppedCounter = meterRegistry.counter("chat.websocket.outbound.dropped");
+        this.slowConsumerCounter = meterRegistry.counter("chat.websocket.outbound.slow-consumer-disconnects");
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        TrackedSession session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null) {
+            return message;
+        }
+
+        int depth = session.pending.get();
+
+        if (depth >= disconnectThreshold) {
+            closeSlowConsumer(session, depth);
+            return null;
+        }
+
+        if (depth >= dropThreshold && isDroppable(message)) {
+            droppedCounter.increment();
+            return null;
+        }
+
+        queueDepth.record(session.pending.incrementAndGet());
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        if (ex != null) {
+            // Never reached the socket, so the tracked session will not decrement it
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+            TrackedSession session = sessionId != null ? sessions.get(sessionId) : null;
+            if (session != null) {
+                session.written();
+            }
+        }
+    }
+
+    public WebSocketHandlerDecoratorFactory decoratorFactory() {
+        return handler -> new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                TrackedSession tracked = new TrackedSession(session);
+                sessions.put(session.getId(), tracked);
+                super.afterConnectionEstablished(tracked);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    int pendingFor(String sessionId) {
+        TrackedSession session = sessions.get(sessionId);
+        return session != null ? session.pending.get() : 0;
+    }
+
+    private boolean isDroppable(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return false;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return destination != null && droppablePrefixes.stream().anyMatch(destination::startsWith);
+    }
+
+    private void closeSlowConsumer(TrackedSession session, int depth) {
+        if (!session.closing.compareAndSet(0, 1)) {
+            return;
+        }
+        slowConsumerCounter.increment();
+        log.warn("Closing slow WebSocket consumer {} with {} pending outbound frames", session.getId(), depth);
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Failed to close slow consumer {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private static final class TrackedSession extends WebSocketSessionDecorator {
+
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger closing = new AtomicInteger();
+
+        private TrackedSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                written();
+            }
+        }
+
+        private void written() {
+            pending.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+}
@@ -4,9 +4,11 @@ import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import java.util.HashMap;
 import java.util.Map;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
@@ -22,6 +24,16 @@ public class RabbitMQConfig {
     public static final String CHAT_DLX_EXCHANGE = "chat.dlx.exchange";
     public static final String CHAT_DLQ_QUEUE = "chat.dlq.queue";
     public static final String CHAT_DLQ_ROUTING_KEY = "chat.dlq";
+    
+    public static final String USER_CHANNEL_EXCHANGE = "chat.user-channel.exchange";
+    public static final String USER_CHANNEL_QUEUE_PREFIX = "chat.user-channel.";
+
+    /** Single-consumer factory for per-node queues whose events must be handled in order */
+    public static final String ORDERED_LISTENER_FACTORY = "orderedRabbitListenerContainerFactory";
+    private static final int USER_CHANNEL_QUEUE_EXPIRES_MS = 60000;
+
+    public static final String TAIL_CACHE_EXCHANGE = "chat.tail-cache.exchange";
+    public static final String TAIL_CACHE_QUEUE_PREFIX = "chat.tail-cache.";
 
     @Bean
     public TopicExchange chatExchange() {
@@ -54,6 +66,51 @@ public class RabbitMQConfig {
         return new Queue(CHAT_DLQ_QUEUE, true);
     }
 
+    @Bean
+    public DirectExchange userChannelExchange() {
+        return new DirectExchange(USER_CHANNEL_EXCHANGE, true, false);
+    }
+
+    /**
+     * One queue per backend node carrying user-channel frames for its local sessions,
+     * instead of a durable broker queue per user. Non-durable and auto-deleted; x-expires
+     * removes it if the node dies without closing its consumer.
+     */
+    @Bean
+    public Queue userChannelQueue(ClusterNode clusterNode) {
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-expires", USER_CHANNEL_QUEUE_EXPIRES_MS);
+        return new Queue(clusterNode.userChannelQueue(), false, false, true, args);
+    }
+
+    @Bean
+    public Binding userChannelBinding(Queue userChannelQueue, DirectExchange userChannelExchange, ClusterNode clusterNode) {
+        return BindingBuilder.bind(userChannelQueue)
+                .to(userChannelExchange)
+                .with(clusterNode.getNodeId());
+    }
+
+    @Bean
+    public FanoutExchange tailCacheExchange() {
+        return new FanoutExchange(TAIL_CACHE_EXCHANGE, true, false);
+    }
+
+    /**
+     * Per-node queue for message tail cache updates; every node gets every event.
+     * Same lifecycle as the user-channel queue.
+     */
+    @Bean
+    public Queue tailCacheQueue(ClusterNode clusterNode) {
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-expires", USER_CHANNEL_QUEUE_EXPIRES_MS);
+        return new Queue(clusterNode.tailCacheQueue(), false, false, true, args);
+    }
+
+    @Bean
+    public Binding tailCacheBinding(Queue tailCacheQueue, FanoutExchange tailCacheExchange) {
+        return BindingBuilder.bind(tailCacheQueue).to(tailCacheExchange);
+    }
+
     @Bean
     public Binding chatInputBinding(Queue chatInputQueue, TopicExchange chatExchange) {
         return BindingBuilder.bind(chatInputQueue)
@@ -90,10 +147,41 @@ public class RabbitMQConfig {
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory, 
-            JacksonJsonMessageConverter messageConverter) {
+            JacksonJsonMessageConverter messageConverter,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+            @Value("${chat.rabbitmq.listener.max-concurrency:20}") int maxConcurrency) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(messageConverter);
+        
+        if (virtualThreadsEnabled) {
+            // Consumers are cheap on virtual threads; the consumer count is the concurrency bound
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-listener-"));
+            factory.setConcurrentConsumers(1);
+            factory.setMaxConcurrentConsumers(maxConcurrency);
+        }
+        return factory;
+    }
+
+    /**
+     * Tail-cache fanout and user-channel frames carry messages, edits and receipts that
+     * must be applied in publish order, so these queues always have exactly one consumer
+     * regardless of chat.rabbitmq.listener.max-concurrency.
+     */
+    @Bean(ORDERED_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory orderedRabbitListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            JacksonJsonMessageConverter messageConverter,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+
+        if (virtualThreadsEnabled) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-ordered-listener-"));
+        }
         return factory;
     }
 
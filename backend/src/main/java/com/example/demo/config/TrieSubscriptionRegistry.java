@@ -0,0 +1,164 @@
+package com.example.demo.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Subscription registry for the in-process broker, keyed by a trie of destination
+ * segments instead of pattern-matching every subscription on each publish.
+ *
+ * <p>Destinations are split on both {@code /} and {@code .}, so
+ * {@code /topic/conversation.abc} becomes {@code topic → conversation → abc}. Wildcards
+ * follow the RabbitMQ topic exchange rules used by the relay ({@code *} matches one
+ * segment, {@code #} zero or more) so clients behave the same under either broker type.
+ *
+ * <p>Lookups are lock-free over concurrent maps; subscribe/unsubscribe are serialized
+ * so empty branches can be pruned safely as conversations come and go.
+ */
+public class TrieSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private static final String SINGLE_WILDCARD = "*";
+    private static final String MULTI_WILDCARD = "#";
+
+    private final Node root = new Node();
+
+    /** sessionId -> (subscriptionId -> destination), for unsubscribe and disconnect */
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+
+    @Override
+    protected synchronized void addSubscriptionInternal(
+            String sessionId, String subscriptionId, String destination, Message<?> message) {
+
+        Node node = root;
+        for (String segment : tokenize(destination)) {
+            node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+        node.subscribers.computeIfAbsent(sessionId, key -> ConcurrentHashMap.newKeySet()).add(subscriptionId);
+
+        sessionSubscriptions.computeIfAbsent(sessionId, key -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+    }
+
+    @Override
+    protected synchronized void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        Map<String, String> subscriptions = sessionSubscriptions.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+
+        String destination = subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            remove(tokenize(destination), sessionId, subscriptionId);
+        }
+        if (subscriptions.isEmpty()) {
+            sessionSubscriptions.remove(sessionId);
+        }
+    }
+
+    @Override
+    public synchronized void unregisterAllSubscriptions(String sessionId) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        subscriptions.forEach((subscriptionId, destination) ->
+                remove(tokenize(destination), sessionId, subscriptionId));
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        MultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+        collect(root, tokenize(destination), 0, result);
+        return result;
+    }
+
+    int sessionCount() {
+        return sessionSubscriptions.size();
+    }
+
+    private void collect(Node node, List<String> segments, int index, MultiValueMap<String, String> result) {
+        Node multi = node.children.get(MULTI_WILDCARD);
+        if (multi != null) {
+            // '#' may swallow zero or more of the remaining segments
+            for (int next = index; next <= segments.size(); next++) {
+                collect(multi, segments, next, result);
+            }
+        }
+
+        if (index == segments.size()) {
+            node.subscribers.forEach((sessionId, subscriptionIds) -> subscriptionIds.forEach(subscriptionId -> {
+                List<String> existing = result.get(sessionId);
+                if (existing == null || !existing.contains(subscriptionId)) {
+                    result.add(sessionId, subscriptionId);
+                }
+            }));
+            return;
+        }
+
+        Node exact = node.children.get(segments.get(index));
+        if (exact != null) {
+            collect(exact, segments, index + 1, result);
+        }
+        Node single = node.children.get(SINGLE_WILDCARD);
+        if (single != null) {
+            collect(single, segments, index + 1, result);
+        }
+    }
+
+    private void remove(List<String> segments, String sessionId, String subscriptionId) {
+        List<Node> path = new ArrayList<>(segments.size() + 1);
+        Node node = root;
+        path.add(node);
+        for (String segment : segments) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return;
+            }
+            path.add(node);
+        }
+
+        Set<String> subscriptionIds = node.subscribers.get(sessionId);
+        if (subscriptionIds != null) {
+            subscriptionIds.remove(subscriptionId);
+            if (subscriptionIds.isEmpty()) {
+                node.subscribers.remove(sessionId);
+            }
+        }
+
+        // Prune branches that no longer lead to any subscriber
+        for (int i = segments.size(); i > 0; i--) {
+            Node current = path.get(i);
+            if (!current.subscribers.isEmpty() || !current.children.isEmpty()) {
+                break;
+            }
+            path.get(i - 1).children.remove(segments.get(i - 1));
+        }
+    }
+
+    static List<String> tokenize(String destination) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= destination.length(); i++) {
+            if (i == destination.length() || destination.charAt(i) == '/' || destination.charAt(i) == '.') {
+                if (i > start) {
+                    segments.add(destination.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return segments;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> subscribers = new ConcurrentHashMap<>();
+    }
+}
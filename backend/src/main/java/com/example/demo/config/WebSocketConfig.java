@@ -1,10 +1,17 @@
 package com.example.demo.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -33,10 +40,67 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Value("${spring.rabbitmq.stomp.port}")
     private int stompPort;
     
+    @Value("${spring.websocket.broker.type:rabbitmq}")
+    private String brokerType;
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    
+    @Value("${chat.websocket.virtual-threads.inbound-concurrency:1000}")
+    private int inboundConcurrency;
+    
+    @Value("${chat.websocket.virtual-threads.outbound-concurrency:1000}")
+    private int outboundConcurrency;
+    
+    @Value("${chat.websocket.send-time-limit:5000}")
+    private int sendTimeLimit;
+    
+    @Value("${chat.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+    
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+    
+    private TaskScheduler messageBrokerTaskScheduler;
+    
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+    
+    /**
+     * Swaps the simple broker's pattern-matching registry for the trie registry.
+     * Only applies when broker.type=simple; with the relay there is no such handler.
+     */
+    @Bean
+    public static BeanPostProcessor trieSubscriptionRegistryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler handler) {
+                    handler.setSubscriptionRegistry(new TrieSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
+        config.setApplicationDestinationPrefixes("/app");
+        // One ordered outbound queue per session in both modes: the relay delivers frames
+        // from the broker in order, and without this the pooled outbound channel could
+        // still reorder them on their way to the client
+        config.setPreservePublishOrder(true);
+        
+        if ("simple".equalsIgnoreCase(brokerType)) {
+            // Single-node mode: fan out in-process
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] {10000, 10000})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+            return;
+        }
+        
         config.enableStompBrokerRelay("/topic", "/queue")
                 .setRelayHost(rabbitHost)
                 .setRelayPort(stompPort)
@@ -45,8 +109,6 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setSystemLogin(rabbitUsername)
                 .setSystemPasscode(rabbitPassword)
                 .setVirtualHost("/");
-        
-        config.setApplicationDestinationPrefixes("/app");
     }
 
     @Override
@@ -61,8 +123,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthInterceptor)
-                .taskExecutor()
+        registration.interceptors(webSocketAuthInterceptor);
+        
+        if (virtualThreadsEnabled) {
+            registration.executor(BoundedVirtualThreadExecutor.blocking("ws-inbound-", inboundConcurrency));
+            return;
+        }
+        
+        registration.taskExecutor()
                 .corePoolSize(10)
                 .maxPoolSize(20)
                 .queueCapacity(500);
@@ -70,6 +138,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
     @Override
     public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(outboundBackpressureInterceptor);
+        
+        if (virtualThreadsEnabled) {
+            registration.executor(BoundedVirtualThreadExecutor.handOff("ws-outbound-", outboundConcurrency));
+            return;
+        }
+        
         registration.taskExecutor()
                 .corePoolSize(10)
                 .maxPoolSize(20)
@@ -78,8 +153,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
     @Override
     public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Tight send limits so a stalled client is terminated in seconds instead of
+        // pinning an outbound thread and 10MB of buffered frames
         registration.setMessageSizeLimit(10 * 1024 * 1024) // 10MB
-                .setSendBufferSizeLimit(10 * 1024 * 1024) // 10MB
-                .setSendTimeLimit(20 * 1000); // 20 seconds
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .addDecoratorFactory(outboundBackpressureInterceptor.decoratorFactory());
     }
 }
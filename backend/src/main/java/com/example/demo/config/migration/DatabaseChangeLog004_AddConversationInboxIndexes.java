@@ -0,0 +1,68 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+
+/**
+ * Migration: Add compound indexes for inbox and direct-conversation lookups
+ * Version: 004
+ * Date: 2026-10-18
+ * Purpose: Serve participant + status + updatedAt queries without an in-memory SORT
+ */
+@Slf4j
+@ChangeUnit(id = "004-add-conversation-inbox-indexes", order = "004", author = "chat-system")
+public class DatabaseChangeLog004_AddConversationInboxIndexes {
+
+    /**
+     * Creates the multikey inbox index and the direct-conversation lookup index.
+     * The inbox index lets findByParticipantIdsContainingAndStatusOrderByUpdatedAtDesc
+     * walk the index in updatedAt order instead of sorting the matches in memory.
+     */
+    @Execution
+    public void createConversationInboxIndexes(MongoDatabase mongoDatabase) {
+        log.info("Migration 004: Creating conversation inbox indexes");
+
+        MongoCollection<Document> collection = mongoDatabase.getCollection("conversations");
+
+        // Inbox: { participantIds: 1, status: 1, updatedAt: -1 }
+        collection.createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("participantIds"),
+                Indexes.ascending("status"),
+                Indexes.descending("updatedAt")
+            ),
+            new IndexOptions().name("idx_conversations_participantIds_status_updatedAt")
+        );
+        log.info("Created index: idx_conversations_participantIds_status_updatedAt");
+
+        // Direct-conversation lookup: { type: 1, participantIds: 1, status: 1 }
+        collection.createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("type"),
+                Indexes.ascending("participantIds"),
+                Indexes.ascending("status")
+            ),
+            new IndexOptions().name("idx_conversations_type_participantIds_status")
+        );
+        log.info("Created index: idx_conversations_type_participantIds_status");
+    }
+
+    /**
+     * Rollback: Drop the inbox indexes
+     */
+    @RollbackExecution
+    public void rollbackConversationInboxIndexes(MongoDatabase mongoDatabase) {
+        log.info("Migration 004 Rollback: Dropping conversation inbox indexes");
+        MongoCollection<Document> collection = mongoDatabase.getCollection("conversations");
+        collection.dropIndex("idx_conversations_participantIds_status_updatedAt");
+        collection.dropIndex("idx_conversations_type_participantIds_status");
+        log.info("Dropped conversation inbox indexes");
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Migration: Backfill directKey on existing DIRECT conversations
+ * Version: 005
+ * Date: 2026-10-18
+ * Purpose: Populate the canonical "min:max" key before the unique index is built (006)
+ */
+@Slf4j
+@ChangeUnit(id = "005-backfill-direct-conversation-keys", order = "005", author = "chat-system")
+public class DatabaseChangeLog005_BackfillDirectConversationKeys {
+
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Streams active DIRECT conversations newest first and sets directKey in bulk.
+     * When duplicates already exist for a pair, only the most recently updated one
+     * receives the key; the older copies stay keyless and fall outside the partial index.
+     */
+    @Execution
+    public void backfillDirectKeys(MongoDatabase mongoDatabase) {
+        log.info("Migration 005: Backfilling directKey on DIRECT conversations");
+
+        MongoCollection<Document> collection = mongoDatabase.getCollection("conversations");
+        Set<String> seenKeys = new HashSet<>();
+        List<WriteModel<Document>> batch = new ArrayList<>();
+        int updated = 0;
+        int skipped = 0;
+
+        try (MongoCursor<Document> cursor = collection
+                .find(Filters.and(
+                    Filters.eq("type", "DIRECT"),
+                    Filters.eq("status", "ACTIVE"),
+                    Filters.exists("directKey", false)
+                ))
+                .sort(Sorts.descending("updatedAt"))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+
+            while (cursor.hasNext()) {
+                Document conversation = cursor.next();
+                List<?> participantIds = conversation.getList("participantIds", Object.class);
+
+                if (participantIds == null || participantIds.size() != 2) {
+                    skipped++;
+                    continue;
+                }
+
+                long first = ((Number) participantIds.get(0)).longValue();
+                long second = ((Number) participantIds.get(1)).longValue();
+                String directKey = Math.min(first, second) + ":" + Math.max(first, second);
+
+                if (!seenKeys.add(directKey)) {
+                    log.warn("Duplicate direct conversation {} for key {}, leaving it unkeyed",
+                        conversation.get("_id"), directKey);
+                    skipped++;
+                    continue;
+                }
+
+                batch.add(new UpdateOneModel<>(
+                    Filters.eq("_id", conversation.get("_id")),
+                    Updates.set("directKey", directKey)
+                ));
+
+                if (batch.size() >= BATCH_SIZE) {
+                    updated += collection.bulkWrite(batch).getModifiedCount();
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            updated += collection.bulkWrite(batch).getModifiedCount();
+        }
+
+        log.info("Migration 005: Set directKey on {} conversations, skipped {}", updated, skipped);
+    }
+
+    /**
+     * Rollback: Remove directKey from all conversations
+     */
+    @RollbackExecution
+    public void rollbackDirectKeys(MongoDatabase mongoDatabase) {
+        log.info("Migration 005 Rollback: Removing directKey from conversations");
+        mongoDatabase.getCollection("conversations")
+            .updateMany(Filters.exists("directKey"), Updates.unset("directKey"));
+        log.info("Removed directKey from conversations");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration: Unique partial index on conversations.directKey
+ * Version: 006
+ * Date: 2026-10-18
+ * Purpose: At most one ACTIVE direct conversation per participant pair
+ */
+@Slf4j
+@ChangeUnit(id = "006-add-direct-key-unique-index", order = "006", author = "chat-system")
+public class DatabaseChangeLog006_AddDirectKeyUniqueIndex {
+
+    /**
+     * Creates the unique index, restricted to active documents that carry a key so
+     * that GROUP conversations and soft-deleted DIRECT ones never collide.
+     */
+    @Execution
+    public void createDirectKeyIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 006: Creating unique directKey index");
+
+        mongoDatabase.getCollection("conversations").createIndex(
+            Indexes.ascending("directKey"),
+            new IndexOptions()
+                .name("uniq_conversations_directKey_active")
+                .unique(true)
+                .partialFilterExpression(Filters.and(
+                    Filters.exists("directKey", true),
+                    Filters.eq("status", "ACTIVE")
+                ))
+        );
+        log.info("Created index: uniq_conversations_directKey_active");
+    }
+
+    /**
+     * Rollback: Drop the directKey index
+     */
+    @RollbackExecution
+    public void rollbackDirectKeyIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 006 Rollback: Dropping unique directKey index");
+        mongoDatabase.getCollection("conversations").dropIndex("uniq_conversations_directKey_active");
+        log.info("Dropped index: uniq_conversations_directKey_active");
+    }
+}
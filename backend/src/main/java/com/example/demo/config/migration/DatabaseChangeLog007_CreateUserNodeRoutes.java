@@ -0,0 +1,68 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migration: Create user_node_routes collection
+ * Version: 007
+ * Date: 2026-10-18
+ * Purpose: Node directory for routing user-channel frames to the node holding the session
+ */
+@Slf4j
+@ChangeUnit(id = "007-create-user-node-routes", order = "007", author = "chat-system")
+public class DatabaseChangeLog007_CreateUserNodeRoutes {
+
+    private static final long ROUTE_TTL_SECONDS = 90;
+
+    /**
+     * Creates the collection with a userId lookup index and a TTL index on lastSeenAt.
+     * Live nodes touch their rows every 30s, so rows only expire when their node is gone.
+     */
+    @Execution
+    public void createUserNodeRoutes(MongoDatabase mongoDatabase) {
+        log.info("Migration 007: Creating user_node_routes collection");
+
+        mongoDatabase.createCollection("user_node_routes");
+        MongoCollection<Document> collection = mongoDatabase.getCollection("user_node_routes");
+
+        collection.createIndex(
+            Indexes.ascending("userId"),
+            new IndexOptions().name("idx_user_node_routes_userId")
+        );
+        log.info("Created index: idx_user_node_routes_userId");
+
+        collection.createIndex(
+            Indexes.ascending("nodeId"),
+            new IndexOptions().name("idx_user_node_routes_nodeId")
+        );
+        log.info("Created index: idx_user_node_routes_nodeId");
+
+        collection.createIndex(
+            Indexes.ascending("lastSeenAt"),
+            new IndexOptions()
+                .name("ttl_user_node_routes_lastSeenAt")
+                .expireAfter(ROUTE_TTL_SECONDS, TimeUnit.SECONDS)
+        );
+        log.info("Created index: ttl_user_node_routes_lastSeenAt");
+    }
+
+    /**
+     * Rollback: Drop the user_node_routes collection
+     */
+    @RollbackExecution
+    public void rollbackUserNodeRoutes(MongoDatabase mongoDatabase) {
+        log.info("Migration 007 Rollback: Dropping user_node_routes collection");
+        mongoDatabase.getCollection("user_node_routes").drop();
+        log.info("Dropped user_node_routes collection");
+    }
+}
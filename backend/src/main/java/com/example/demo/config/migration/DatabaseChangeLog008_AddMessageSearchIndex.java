@@ -0,0 +1,53 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration: Add text index for message search
+ * Version: 008
+ * Date: 2026-10-18
+ * Purpose: Full-text search over messages.searchText without regex COLLSCANs
+ */
+@Slf4j
+@ChangeUnit(id = "008-add-message-search-index", order = "008", author = "chat-system")
+public class DatabaseChangeLog008_AddMessageSearchIndex {
+
+    /**
+     * Creates { conversationId: 1, searchText: "text" }. Language "none" disables
+     * stemming and stop words, since chat history is multilingual. With conversationId
+     * as an equality prefix a search only reads the matching conversation's terms,
+     * instead of every conversation's postings for the term.
+     * Existing messages get searchText from the reindex job (chat.search.reindex-on-startup).
+     */
+    @Execution
+    public void createMessageSearchIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 008: Creating message search text index");
+
+        mongoDatabase.getCollection("messages").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("conversationId"),
+                Indexes.text("searchText")
+            ),
+            new IndexOptions()
+                .name("txt_messages_conversationId_searchText")
+                .defaultLanguage("none")
+        );
+        log.info("Created index: txt_messages_conversationId_searchText");
+    }
+
+    /**
+     * Rollback: Drop the text index
+     */
+    @RollbackExecution
+    public void rollbackMessageSearchIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 008 Rollback: Dropping message search text index");
+        mongoDatabase.getCollection("messages").dropIndex("txt_messages_conversationId_searchText");
+        log.info("Dropped index: txt_messages_conversationId_searchText");
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration: Add (conversationId, sentAt, _id) index on messages
+ * Version: 009
+ * Date: 2026-10-18
+ * Purpose: Keyset walks over a conversation's history without a blocking SORT
+ */
+@Slf4j
+@ChangeUnit(id = "009-add-message-keyset-index", order = "009", author = "chat-system")
+public class DatabaseChangeLog009_AddMessageKeysetIndex {
+
+    /**
+     * The existing { conversationId: 1, sentAt: -1 } index cannot order ties on _id, so
+     * a (sentAt, _id) sort over a million-message conversation would be sorted in memory.
+     * This index serves the export in either direction.
+     */
+    @Execution
+    public void createMessageKeysetIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 009: Creating message keyset index");
+
+        mongoDatabase.getCollection("messages").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("conversationId"),
+                Indexes.ascending("sentAt"),
+                Indexes.ascending("_id")
+            ),
+            new IndexOptions().name("idx_messages_conversationId_sentAt_id")
+        );
+        log.info("Created index: idx_messages_conversationId_sentAt_id");
+    }
+
+    /**
+     * Rollback: Drop the keyset index
+     */
+    @RollbackExecution
+    public void rollbackMessageKeysetIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 009 Rollback: Dropping message keyset index");
+        mongoDatabase.getCollection("messages").dropIndex("idx_messages_conversationId_sentAt_id");
+        log.info("Dropped index: idx_messages_conversationId_sentAt_id");
+    }
+}
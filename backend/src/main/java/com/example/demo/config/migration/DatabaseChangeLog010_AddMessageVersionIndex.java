@@ -0,0 +1,60 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration: Add (conversationId, version) and (conversationId, supersededVersions) indexes on messages
+ * Version: 010
+ * Date: 2026-10-18
+ * Purpose: Serve the per-conversation changes feed in O(changes)
+ */
+@Slf4j
+@ChangeUnit(id = "010-add-message-version-index", order = "010", author = "chat-system")
+public class DatabaseChangeLog010_AddMessageVersionIndex {
+
+    /**
+     * Creates { conversationId: 1, version: 1 }; the changes feed reads a range of it in
+     * version order. Also creates { conversationId: 1, supersededVersions: 1 }, which it
+     * reads to skip versions that edits and unsends have moved messages off.
+     */
+    @Execution
+    public void createMessageVersionIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 010: Creating message version indexes");
+
+        mongoDatabase.getCollection("messages").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("conversationId"),
+                Indexes.ascending("version")
+            ),
+            new IndexOptions().name("idx_messages_conversationId_version")
+        );
+        log.info("Created index: idx_messages_conversationId_version");
+
+        mongoDatabase.getCollection("messages").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("conversationId"),
+                Indexes.ascending("supersededVersions")
+            ),
+            new IndexOptions().name("idx_messages_conversationId_supersededVersions")
+        );
+        log.info("Created index: idx_messages_conversationId_supersededVersions");
+    }
+
+    /**
+     * Rollback: Drop the version indexes
+     */
+    @RollbackExecution
+    public void rollbackMessageVersionIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 010 Rollback: Dropping message version indexes");
+        mongoDatabase.getCollection("messages").dropIndex("idx_messages_conversationId_version");
+        log.info("Dropped index: idx_messages_conversationId_version");
+        mongoDatabase.getCollection("messages").dropIndex("idx_messages_conversationId_supersededVersions");
+        log.info("Dropped index: idx_messages_conversationId_supersededVersions");
+    }
+}
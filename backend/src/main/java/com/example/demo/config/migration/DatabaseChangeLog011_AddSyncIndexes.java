@@ -0,0 +1,76 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+
+import java.util.List;
+
+/**
+ * Migration: Add changedAt indexes for offline sync
+ * Version: 011
+ * Date: 2026-10-18
+ * Purpose: Serve /api/chat/sync deltas from index range scans
+ */
+@Slf4j
+@ChangeUnit(id = "011-add-sync-indexes", order = "011", author = "chat-system")
+public class DatabaseChangeLog011_AddSyncIndexes {
+
+    /**
+     * Backfills conversations.changedAt from updatedAt, then creates the inbox-style
+     * { participantIds, status, changedAt, _id } index and { conversationId, changedAt, _id }
+     * on messages. _id is the keyset tie-breaker for items sharing one changedAt (a bulk
+     * tombstone stamps a whole batch with the same time). Older messages have no
+     * changedAt; first syncs read them by sentAt.
+     */
+    @Execution
+    public void createSyncIndexes(MongoDatabase mongoDatabase) {
+        log.info("Migration 011: Creating sync indexes");
+
+        MongoCollection<Document> conversations = mongoDatabase.getCollection("conversations");
+        long backfilled = conversations.updateMany(
+            Filters.exists("changedAt", false),
+            List.of(new Document("$set", new Document("changedAt", "$updatedAt")))
+        ).getModifiedCount();
+        log.info("Backfilled changedAt on {} conversations", backfilled);
+
+        conversations.createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("participantIds"),
+                Indexes.ascending("status"),
+                Indexes.ascending("changedAt"),
+                Indexes.ascending("_id")
+            ),
+            new IndexOptions().name("idx_conversations_participantIds_status_changedAt_id")
+        );
+        log.info("Created index: idx_conversations_participantIds_status_changedAt_id");
+
+        mongoDatabase.getCollection("messages").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("conversationId"),
+                Indexes.ascending("changedAt"),
+                Indexes.ascending("_id")
+            ),
+            new IndexOptions().name("idx_messages_conversationId_changedAt_id")
+        );
+        log.info("Created index: idx_messages_conversationId_changedAt_id");
+    }
+
+    /**
+     * Rollback: Drop the sync indexes (changedAt values are left in place)
+     */
+    @RollbackExecution
+    public void rollbackSyncIndexes(MongoDatabase mongoDatabase) {
+        log.info("Migration 011 Rollback: Dropping sync indexes");
+        mongoDatabase.getCollection("conversations").dropIndex("idx_conversations_participantIds_status_changedAt_id");
+        mongoDatabase.getCollection("messages").dropIndex("idx_messages_conversationId_changedAt_id");
+        log.info("Dropped sync indexes");
+    }
+}
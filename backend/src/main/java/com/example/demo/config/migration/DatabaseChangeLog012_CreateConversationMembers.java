@@ -0,0 +1,54 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+
+/**
+ * Migration: Create conversation_members collection
+ * Version: 012
+ * Date: 2026-10-19
+ * Purpose: Per-member read state for large groups, outside the message documents
+ */
+@Slf4j
+@ChangeUnit(id = "012-create-conversation-members", order = "012", author = "chat-system")
+public class DatabaseChangeLog012_CreateConversationMembers {
+
+    /**
+     * Rows are addressed by their "conversationId:userId" _id; the (userId, lastReadAt)
+     * index serves the read positions returned by sync and per-user maintenance such as
+     * account deletion.
+     */
+    @Execution
+    public void createConversationMembers(MongoDatabase mongoDatabase) {
+        log.info("Migration 012: Creating conversation_members collection");
+
+        mongoDatabase.createCollection("conversation_members");
+        MongoCollection<Document> collection = mongoDatabase.getCollection("conversation_members");
+
+        collection.createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("userId"),
+                Indexes.ascending("lastReadAt")
+            ),
+            new IndexOptions().name("idx_conversation_members_userId_lastReadAt")
+        );
+        log.info("Created index: idx_conversation_members_userId_lastReadAt");
+    }
+
+    /**
+     * Rollback: Drop the conversation_members collection
+     */
+    @RollbackExecution
+    public void rollbackConversationMembers(MongoDatabase mongoDatabase) {
+        log.info("Migration 012 Rollback: Dropping conversation_members collection");
+        mongoDatabase.getCollection("conversation_members").drop();
+        log.info("Dropped conversation_members collection");
+    }
+}
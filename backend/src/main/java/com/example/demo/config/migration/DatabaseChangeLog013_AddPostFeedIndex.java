@@ -0,0 +1,51 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration: Add keyset index for the post feed
+ * Version: 013
+ * Date: 2026-10-19
+ * Purpose: Serve the public feed as (createdAt, _id) keyset pages instead of a full scan
+ */
+@Slf4j
+@ChangeUnit(id = "013-add-post-feed-index", order = "013", author = "chat-system")
+public class DatabaseChangeLog013_AddPostFeedIndex {
+
+    private static final String INDEX_NAME = "idx_posts_status_createdAt_id";
+
+    /**
+     * Equality on status, then newest first with _id as the tie-breaker, matching the
+     * feed's sort so each page is an index range scan of page-size entries.
+     */
+    @Execution
+    public void addPostFeedIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 013: Adding post feed keyset index");
+
+        mongoDatabase.getCollection("posts").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("status"),
+                Indexes.descending("createdAt"),
+                Indexes.descending("_id")
+            ),
+            new IndexOptions().name(INDEX_NAME)
+        );
+        log.info("Created index: {}", INDEX_NAME);
+    }
+
+    /**
+     * Rollback: Drop the post feed index
+     */
+    @RollbackExecution
+    public void rollbackPostFeedIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 013 Rollback: Dropping post feed keyset index");
+        mongoDatabase.getCollection("posts").dropIndex(INDEX_NAME);
+        log.info("Dropped index: {}", INDEX_NAME);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration: Add per-author post index for home timelines
+ * Version: 014
+ * Date: 2026-10-19
+ * Purpose: Serve timeline backfill and read-time merge of high-follower authors' posts
+ */
+@Slf4j
+@ChangeUnit(id = "014-add-timeline-indexes", order = "014", author = "chat-system")
+public class DatabaseChangeLog014_AddTimelineIndexes {
+
+    private static final String INDEX_NAME = "idx_posts_userId_status_createdAt_id";
+
+    /**
+     * Equality on author and status, then newest first with _id as the tie-breaker, so
+     * the $in over followed authors is a merge of per-author index ranges.
+     */
+    @Execution
+    public void addTimelineIndexes(MongoDatabase mongoDatabase) {
+        log.info("Migration 014: Adding per-author post index");
+
+        mongoDatabase.getCollection("posts").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("userId"),
+                Indexes.ascending("status"),
+                Indexes.descending("createdAt"),
+                Indexes.descending("_id")
+            ),
+            new IndexOptions().name(INDEX_NAME)
+        );
+        log.info("Created index: {}", INDEX_NAME);
+    }
+
+    /**
+     * Rollback: Drop the per-author post index
+     */
+    @RollbackExecution
+    public void rollbackTimelineIndexes(MongoDatabase mongoDatabase) {
+        log.info("Migration 014 Rollback: Dropping per-author post index");
+        mongoDatabase.getCollection("posts").dropIndex(INDEX_NAME);
+        log.info("Dropped index: {}", INDEX_NAME);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+
+/**
+ * Migration: Create post_likes collection
+ * Version: 015
+ * Date: 2026-10-19
+ * Purpose: Per-user like set that makes likes idempotent and backs Post.likes
+ */
+@Slf4j
+@ChangeUnit(id = "015-create-post-likes", order = "015", author = "chat-system")
+public class DatabaseChangeLog015_CreatePostLikes {
+
+    /**
+     * Rows are addressed by their "postId:userId" _id; the userId index serves
+     * per-user maintenance such as account deletion.
+     */
+    @Execution
+    public void createPostLikes(MongoDatabase mongoDatabase) {
+        log.info("Migration 015: Creating post_likes collection");
+
+        mongoDatabase.createCollection("post_likes");
+        MongoCollection<Document> collection = mongoDatabase.getCollection("post_likes");
+
+        collection.createIndex(
+            Indexes.ascending("userId"),
+            new IndexOptions().name("idx_post_likes_userId")
+        );
+        log.info("Created index: idx_post_likes_userId");
+    }
+
+    /**
+     * Rollback: Drop the post_likes collection
+     */
+    @RollbackExecution
+    public void rollbackPostLikes(MongoDatabase mongoDatabase) {
+        log.info("Migration 015 Rollback: Dropping post_likes collection");
+        mongoDatabase.getCollection("post_likes").drop();
+        log.info("Dropped post_likes collection");
+    }
+}
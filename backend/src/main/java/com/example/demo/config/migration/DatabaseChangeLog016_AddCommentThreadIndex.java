@@ -0,0 +1,54 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration: Add keyset index for comment threads
+ * Version: 016
+ * Date: 2026-10-19
+ * Purpose: Page a post's comments and a comment's replies without reading the whole thread
+ */
+@Slf4j
+@ChangeUnit(id = "016-add-comment-thread-index", order = "016", author = "chat-system")
+public class DatabaseChangeLog016_AddCommentThreadIndex {
+
+    private static final String INDEX_NAME = "idx_comments_postId_parentId_status_createdAt_id";
+
+    /**
+     * Equality on post, parent (null for top-level comments) and status, then oldest
+     * first with _id as the tie-breaker, so both top-level pages and reply pages are
+     * index range scans of page-size entries.
+     */
+    @Execution
+    public void addCommentThreadIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 016: Adding comment thread keyset index");
+
+        mongoDatabase.getCollection("comments").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("postId"),
+                Indexes.ascending("parentId"),
+                Indexes.ascending("status"),
+                Indexes.ascending("createdAt"),
+                Indexes.ascending("_id")
+            ),
+            new IndexOptions().name(INDEX_NAME)
+        );
+        log.info("Created index: {}", INDEX_NAME);
+    }
+
+    /**
+     * Rollback: Drop the comment thread index
+     */
+    @RollbackExecution
+    public void rollbackCommentThreadIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 016 Rollback: Dropping comment thread keyset index");
+        mongoDatabase.getCollection("comments").dropIndex(INDEX_NAME);
+        log.info("Dropped index: {}", INDEX_NAME);
+    }
+}
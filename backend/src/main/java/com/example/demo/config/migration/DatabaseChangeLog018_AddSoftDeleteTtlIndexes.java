@@ -0,0 +1,82 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migration: Expire soft-deleted documents with partial TTL indexes
+ * Version: 018
+ * Date: 2026-10-19
+ * Purpose: Let MongoDB purge soft-deleted posts, comments and conversations
+ */
+@Slf4j
+@ChangeUnit(id = "018-add-soft-delete-ttl-indexes", order = "018", author = "chat-system")
+public class DatabaseChangeLog018_AddSoftDeleteTtlIndexes {
+
+    private static final long DAY_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    /**
+     * Retention per collection. Messages have none: a reaped tombstone would leave a
+     * hole in the conversation's versions that getChanges treats as an abandoned write,
+     * so a client offline for longer than the retention would never learn the message
+     * was unsent. Tombstones carry no content, attachments or search text, only the ids
+     * and version the feed needs.
+     */
+    private static final Map<String, Long> RETENTION_SECONDS = new LinkedHashMap<>();
+
+    static {
+        RETENTION_SECONDS.put("posts", 7 * DAY_SECONDS);
+        RETENTION_SECONDS.put("comments", 7 * DAY_SECONDS);
+        RETENTION_SECONDS.put("conversations", 30 * DAY_SECONDS);
+    }
+
+    /**
+     * One TTL index on deletedAt per collection, partial on status DELETED so live
+     * documents are not even indexed. The TTL monitor removes a document once its
+     * deletedAt is older than the retention; restoring a document (status back to
+     * ACTIVE) takes it out of the index.
+     */
+    @Execution
+    public void addSoftDeleteTtlIndexes(MongoDatabase mongoDatabase) {
+        log.info("Migration 018: Adding soft-delete TTL indexes");
+
+        RETENTION_SECONDS.forEach((collection, retention) -> {
+            String indexName = ttlIndexName(collection);
+            mongoDatabase.getCollection(collection).createIndex(
+                Indexes.ascending("deletedAt"),
+                new IndexOptions()
+                    .name(indexName)
+                    .expireAfter(retention, TimeUnit.SECONDS)
+                    .partialFilterExpression(new Document("status", "DELETED"))
+            );
+            log.info("Created index: {} ({} days)", indexName, retention / DAY_SECONDS);
+        });
+    }
+
+    /**
+     * Rollback: Drop the TTL indexes
+     */
+    @RollbackExecution
+    public void rollbackSoftDeleteTtlIndexes(MongoDatabase mongoDatabase) {
+        log.info("Migration 018 Rollback: Dropping soft-delete TTL indexes");
+
+        RETENTION_SECONDS.keySet().forEach(collection -> {
+            mongoDatabase.getCollection(collection).dropIndex(ttlIndexName(collection));
+            log.info("Dropped index: {}", ttlIndexName(collection));
+        });
+    }
+
+    private static String ttlIndexName(String collection) {
+        return "ttl_" + collection + "_deletedAt";
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config.migration;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Migration: Add comment author index
+ * Version: 019
+ * Date: 2026-10-19
+ * Purpose: Let the account deletion cascade find a user's remaining comments by index
+ */
+@Slf4j
+@ChangeUnit(id = "019-add-comment-author-index", order = "019", author = "chat-system")
+public class DatabaseChangeLog019_AddCommentAuthorIndex {
+
+    private static final String INDEX_NAME = "idx_comments_userId_status";
+
+    /**
+     * Posts (014), messages (002), likes (015) and memberships (012) already have a
+     * per-user index; comments were only indexed by post.
+     */
+    @Execution
+    public void addCommentAuthorIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 019: Adding comment author index");
+
+        mongoDatabase.getCollection("comments").createIndex(
+            Indexes.compoundIndex(
+                Indexes.ascending("userId"),
+                Indexes.ascending("status")
+            ),
+            new IndexOptions().name(INDEX_NAME)
+        );
+        log.info("Created index: {}", INDEX_NAME);
+    }
+
+    /**
+     * Rollback: Drop the comment author index
+     */
+    @RollbackExecution
+    public void rollbackCommentAuthorIndex(MongoDatabase mongoDatabase) {
+        log.info("Migration 019 Rollback: Dropping comment author index");
+        mongoDatabase.getCollection("comments").dropIndex(INDEX_NAME);
+        log.info("Dropped index: {}", INDEX_NAME);
+    }
+}
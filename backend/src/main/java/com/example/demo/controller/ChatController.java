@@ -1,17 +1,29 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.request.CreateConversationRequest;
+import com.example.demo.dto.request.EditMessageRequest;
 import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.dto.response.ConversationChangesResponse;
 import com.example.demo.dto.response.ConversationResponse;
 import com.example.demo.dto.response.MessageResponse;
+import com.example.demo.dto.response.MessageSearchResponse;
+import com.example.demo.dto.response.SyncResponse;
 import com.example.demo.dto.response.UserPresenceResponse;
 import com.example.demo.service.ChatService;
+import com.example.demo.service.ChatSyncService;
+import com.example.demo.service.ConversationExportService;
+import com.example.demo.service.MessageSearchService;
 import com.example.demo.service.UserPresenceService;
 import com.example.demo.util.SecurityUtils;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -20,6 +32,9 @@ public class ChatController {
     
     private final ChatService chatService;
     private final UserPresenceService presenceService;
+    private final MessageSearchService messageSearchService;
+    private final ConversationExportService conversationExportService;
+    private final ChatSyncService chatSyncService;
     
     @PostMapping("/conversations")
     public ApiResponse<ConversationResponse> createConversation(
@@ -40,14 +55,103 @@ public class ChatController {
         );
     }
     
+    /**
+     * Reconnect catch-up: conversations changed since the cursor with their message
+     * deltas and read cursors. Omit {@code cursor} on first load.
+     */
+    @GetMapping("/sync")
+    public ApiResponse<SyncResponse> sync(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int messagesPerConversation) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        return ApiResponse.success(
+            chatSyncService.sync(userId, cursor, messagesPerConversation),
+            "Sync completed successfully"
+        );
+    }
+    
     @GetMapping("/conversations/{id}/messages")
     public ApiResponse<List<MessageResponse>> getMessages(
             @PathVariable String id,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String after) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        return ApiResponse.success(
+            chatService.getMessages(id, userId, page, size, after),
+            "Messages retrieved successfully"
+        );
+    }
+    
+    @GetMapping("/conversations/{id}/changes")
+    public ApiResponse<ConversationChangesResponse> getChanges(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") long sinceVersion,
+            @RequestParam(defaultValue = "200") int limit) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        return ApiResponse.success(
+            chatService.getChanges(id, userId, sinceVersion, limit),
+            "Changes retrieved successfully"
+        );
+    }
+    
+    @PutMapping("/messages/{messageId}")
+    public ApiResponse<MessageResponse> editMessage(
+            @PathVariable String messageId,
+            @RequestBody EditMessageRequest request) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        return ApiResponse.success(
+            chatService.editMessage(messageId, request, userId),
+            "Message edited successfully"
+        );
+    }
+    
+    @DeleteMapping("/messages/{messageId}")
+    public ApiResponse<MessageResponse> unsendMessage(@PathVariable String messageId) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        return ApiResponse.success(
+            chatService.unsendMessage(messageId, userId),
+            "Message unsent successfully"
+        );
+    }
+    
+    /**
+     * Streams the full history as NDJSON (gzip by default). Resume an interrupted
+     * download by passing the last line's _cursor as {@code after}.
+     */
+    @GetMapping("/conversations/{id}/export")
+    public void exportConversation(
+            @PathVariable String id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "true") boolean gzip,
+            @RequestParam(defaultValue = "false") boolean includeDeleted,
+            HttpServletResponse response) throws IOException {
+        Long userId = SecurityUtils.getCurrentUserId();
+        conversationExportService.checkAccess(id, userId, after);
+        
+        String filename = "conversation-" + id + (gzip ? ".ndjson.gz" : ".ndjson");
+        response.setContentType(gzip ? "application/gzip" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename).build().toString());
+        
+        if (gzip) {
+            try (GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 64 * 1024)) {
+                conversationExportService.export(id, after, includeDeleted, out);
+            }
+        } else {
+            conversationExportService.export(id, after, includeDeleted, response.getOutputStream());
+        }
+    }
+    
+    @GetMapping("/messages/search")
+    public ApiResponse<MessageSearchResponse> searchMessages(
+            @RequestParam("q") String query,
+            @RequestParam String conversationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         Long userId = SecurityUtils.getCurrentUserId();
         return ApiResponse.success(
-            chatService.getMessages(id, userId, page, size),
+            messageSearchService.search(userId, query, conversationId, cursor, size),
             "Messages retrieved successfully"
         );
     }
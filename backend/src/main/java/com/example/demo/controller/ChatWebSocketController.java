@@ -3,7 +3,10 @@ package com.example.demo.controller;
 import com.example.demo.config.RabbitMQConfig;
 import com.example.demo.dto.internal.ChatMessage;
 import com.example.demo.dto.internal.TypingIndicator;
+import com.example.demo.dto.request.DeliveryAckRequest;
 import com.example.demo.dto.request.SendMessageRequest;
+import com.example.demo.service.DeliveryReceiptService;
+import com.example.demo.service.TypingIndicatorService;
 import com.example.demo.service.UserPresenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,7 +14,6 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
@@ -26,8 +28,9 @@ import java.time.Instant;
 public class ChatWebSocketController {
     
     private final UserPresenceService presenceService;
+    private final DeliveryReceiptService deliveryReceiptService;
+    private final TypingIndicatorService typingIndicatorService;
     private final RabbitTemplate rabbitTemplate;
-    private final SimpMessagingTemplate messagingTemplate;
     
     @MessageMapping("/chat.send")
     public void sendMessage(@Payload SendMessageRequest request, Principal principal) {
@@ -84,14 +87,16 @@ public class ChatWebSocketController {
     @MessageMapping("/chat.typing")
     public void typing(@Payload TypingIndicator indicator, Principal principal) {
         Long userId = extractUserIdFromPrincipal(principal);
-        indicator.setUserId(userId);
         
         log.debug("User {} typing in conversation {}: {}", userId, indicator.getConversationId(), indicator.getIsTyping());
         
-        messagingTemplate.convertAndSend(
-            "/topic/typing." + indicator.getConversationId(),
-            indicator
-        );
+        typingIndicatorService.onTyping(userId, indicator);
+    }
+    
+    @MessageMapping("/chat.ack")
+    public void acknowledgeDelivery(@Payload DeliveryAckRequest request, Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+        deliveryReceiptService.acknowledge(userId, request);
     }
     
     @EventListener
@@ -3,13 +3,13 @@ package com.example.demo.controller;
 import com.example.demo.dto.request.CreateCommentRequest;
 import com.example.demo.dto.request.UpdateCommentRequest;
 import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.dto.response.CommentPageResponse;
 import com.example.demo.dto.response.CommentResponse;
+import com.example.demo.service.AuthorCache;
 import com.example.demo.service.CommentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/comments")
 @RequiredArgsConstructor
@@ -18,8 +18,25 @@ public class CommentController {
     private final CommentService commentService;
 
     @GetMapping("/post/{postId}")
-    public ApiResponse<List<CommentResponse>> getCommentsByPostId(@PathVariable String postId) {
-        return ApiResponse.success(commentService.getCommentsByPostId(postId), "Comments retrieved successfully");
+    public ApiResponse<CommentPageResponse> getCommentsByPostId(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String expand) {
+        return ApiResponse.success(
+                commentService.getCommentsByPostId(postId, cursor, size, AuthorCache.expandsAuthor(expand)),
+                "Comments retrieved successfully");
+    }
+    
+    @GetMapping("/{id}/replies")
+    public ApiResponse<CommentPageResponse> getReplies(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String expand) {
+        return ApiResponse.success(
+                commentService.getReplies(id, cursor, size, AuthorCache.expandsAuthor(expand)),
+                "Replies retrieved successfully");
     }
     
     @GetMapping("/{id}")
@@ -3,8 +3,13 @@ package com.example.demo.controller;
 import com.example.demo.dto.request.CreatePostRequest;
 import com.example.demo.dto.request.UpdatePostRequest;
 import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.dto.response.PostFeedResponse;
 import com.example.demo.dto.response.PostResponse;
+import com.example.demo.service.AuthorCache;
+import com.example.demo.service.PostLikeService;
 import com.example.demo.service.PostService;
+import com.example.demo.service.TimelineService;
+import com.example.demo.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,10 +21,27 @@ import java.util.List;
 public class PostController {
     
     private final PostService postService;
+    private final TimelineService timelineService;
+    private final PostLikeService postLikeService;
     
     @GetMapping
-    public ApiResponse<List<PostResponse>> getAllPosts() {
-        return ApiResponse.success(postService.getAllPosts(), "Posts retrieved successfully");
+    public ApiResponse<PostFeedResponse> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String expand) {
+        return ApiResponse.success(
+                postService.getFeed(cursor, size, AuthorCache.expandsAuthor(expand)),
+                "Posts retrieved successfully");
+    }
+    
+    @GetMapping("/timeline")
+    public ApiResponse<PostFeedResponse> getTimeline(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String expand) {
+        return ApiResponse.success(
+                timelineService.getTimeline(SecurityUtils.getCurrentUserId(), cursor, size, AuthorCache.expandsAuthor(expand)),
+                "Timeline retrieved successfully");
     }
     
     @GetMapping("/user/{userId}")
@@ -54,4 +76,16 @@ public class PostController {
         postService.deletePost(id);
         return ApiResponse.success("Post deleted successfully");
     }
+
+    @PostMapping("/{id}/like")
+    public ApiResponse<Void> likePost(@PathVariable String id) {
+        postLikeService.like(id, SecurityUtils.getCurrentUserId());
+        return ApiResponse.success("Post liked successfully");
+    }
+
+    @DeleteMapping("/{id}/like")
+    public ApiResponse<Void> unlikePost(@PathVariable String id) {
+        postLikeService.unlike(id, SecurityUtils.getCurrentUserId());
+        return ApiResponse.success("Post unliked successfully");
+    }
 }
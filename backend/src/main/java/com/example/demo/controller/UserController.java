@@ -4,7 +4,9 @@ import com.example.demo.dto.request.UpdateProfileRequest;
 import com.example.demo.dto.response.ApiResponse;
 import com.example.demo.dto.response.ProfileResponse;
 import com.example.demo.dto.response.UserResponse;
+import com.example.demo.service.FollowService;
 import com.example.demo.service.UserService;
+import com.example.demo.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,6 +18,7 @@ import java.util.List;
 public class UserController {
     
     private final UserService userService;
+    private final FollowService followService;
     
     @GetMapping
     public ApiResponse<List<UserResponse>> getAllUsers() {
@@ -38,4 +41,22 @@ public class UserController {
             @RequestBody UpdateProfileRequest request) {
         return ApiResponse.success(userService.updateProfile(id, request), "Profile updated successfully");
     }
+
+    @PostMapping("/{id}/follow")
+    public ApiResponse<Void> follow(@PathVariable Long id) {
+        followService.follow(SecurityUtils.getCurrentUserId(), id);
+        return ApiResponse.success("User followed successfully");
+    }
+
+    @DeleteMapping("/{id}/follow")
+    public ApiResponse<Void> unfollow(@PathVariable Long id) {
+        followService.unfollow(SecurityUtils.getCurrentUserId(), id);
+        return ApiResponse.success("User unfollowed successfully");
+    }
+
+    @DeleteMapping("/me")
+    public ApiResponse<Void> deleteCurrentUser() {
+        userService.deleteUser(SecurityUtils.getCurrentUserId());
+        return ApiResponse.success("User deleted successfully");
+    }
 }
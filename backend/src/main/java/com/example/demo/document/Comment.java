@@ -15,9 +15,12 @@ public class Comment {
     private String id;
 
     private String postId;
+    /** Top-level comment this one replies to; null for top-level comments */
+    private String parentId;
     private Integer userId;
     private String content;
     private Instant createdAt;
+    private Integer repliesCount;
     private EntityStatus status = EntityStatus.ACTIVE;
     private Instant deletedAt;
 }
@@ -14,11 +14,13 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 @Document(collection = "conversations")
 @CompoundIndexes({
     @CompoundIndex(name = "status_updatedAt_idx", def = "{'status': 1, 'updatedAt': -1}"),
-    @CompoundIndex(name = "type_participants_idx", def = "{'type': 1, 'participantIds': 1}")
+    @CompoundIndex(name = "type_participants_idx", def = "{'type': 1, 'participantIds': 1}"),
+    @CompoundIndex(name = "participants_status_updatedAt_idx", def = "{'participantIds': 1, 'status': 1, 'updatedAt': -1}")
 })
 @Data
 @Builder
@@ -35,6 +37,12 @@ public class Conversation {
     @Indexed
     private List<Long> participantIds;
     
+    /**
+     * Canonical "min:max" participant key, set only on DIRECT conversations.
+     * Backed by a unique partial index on active conversations (migration 006).
+     */
+    private String directKey;
+    
     private Long createdBy;
     private Instant createdAt;
     private Instant updatedAt;
@@ -42,6 +50,36 @@ public class Conversation {
     private EntityStatus status;
     private Instant deletedAt;
     
+    /**
+     * Monotonic change counter, $inc'ed for every message create, edit and unsend.
+     * Only ever written through atomic updates, never through a full-document save.
+     */
+    private Long version;
+    
+    /**
+     * Last time anything a client syncs changed: a message create/edit/unsend or a read
+     * cursor. Unlike updatedAt it does not reorder the inbox. Indexed for sync (011).
+     */
+    private Instant changedAt;
+    
+    /** Per-participant read position, keyed by user id. Not maintained for large groups. */
+    private Map<String, Instant> readCursors;
+    
+    /**
+     * Set at creation for groups at or above chat.group.large-threshold members. Their
+     * messages carry no statusList, read state lives in conversation_members and list
+     * updates go out on a shared topic instead of per member.
+     */
+    private Boolean largeGroup;
+    
+    public boolean isLarge() {
+        return Boolean.TRUE.equals(largeGroup);
+    }
+    
+    public static String directKeyOf(Long userId, Long otherUserId) {
+        return Math.min(userId, otherUserId) + ":" + Math.max(userId, otherUserId);
+    }
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,37 @@
+package com.example.demo.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Per-member state of a large group, kept out of the messages: one row per member
+ * instead of one statusList entry per member in every message. The userId index is
+ * created by migration 012.
+ */
+@Document(collection = "conversation_members")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationMember {
+
+    /** "conversationId:userId" */
+    @Id
+    private String id;
+
+    private String conversationId;
+    private Long userId;
+
+    /** Everything sent up to this instant counts as read */
+    private Instant lastReadAt;
+
+    public static String idOf(String conversationId, Long userId) {
+        return conversationId + ":" + userId;
+    }
+}
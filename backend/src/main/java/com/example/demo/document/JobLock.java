@@ -0,0 +1,31 @@
+package com.example.demo.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Cluster-wide lease on a scheduled job, in the spirit of Mongock's own lock: whoever
+ * holds an unexpired lease runs the job, and a node that dies simply lets it lapse.
+ */
+@Document(collection = "job_locks")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock {
+
+    /** Job name */
+    @Id
+    private String id;
+
+    /** Node id of the holder */
+    private String owner;
+
+    private Instant lockedUntil;
+}
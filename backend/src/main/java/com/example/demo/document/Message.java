@@ -44,6 +44,31 @@ public class Message {
     
     private Instant deletedAt;
     
+    /** Set when the sender edits the content */
+    private Instant editedAt;
+    
+    /**
+     * Conversation version allocated for this message's latest change (create, edit or
+     * unsend). Indexed with conversationId by migration 010 for the changes feed.
+     */
+    private Long version;
+    
+    /** Server time at which {@link #version} was allocated */
+    private Instant changedAt;
+    
+    /**
+     * Versions this message held before its latest change, plus versions allocated for it
+     * by changes that lost a race. The changes feed skips them instead of waiting on them
+     * as in-flight writes. Indexed with conversationId by migration 010.
+     */
+    private List<Long> supersededVersions;
+    
+    /**
+     * Normalized copy of content (HTML entities decoded, lowercased) backing the text
+     * index from migration 008. Unset on deleted messages so they leave the index.
+     */
+    private String searchText;
+    
     @Data
     @Builder
     @NoArgsConstructor
@@ -27,6 +27,12 @@ public class Post {
     private EntityStatus status = EntityStatus.ACTIVE;
     private Instant deletedAt;
 
+    /**
+     * Set while the post is not in its followers' timelines and is delivered on read
+     * (see TimelineService); cleared once it has been pushed to them.
+     */
+    private Boolean pulled;
+
     @Data
     public static class MediaItem {
         private String type;
@@ -0,0 +1,35 @@
+package com.example.demo.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One user's like of one post. The deterministic _id makes a repeated like a no-op,
+ * so Post.likes only moves when a row is actually inserted or removed. The userId
+ * index is created by migration 015.
+ */
+@Document(collection = "post_likes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostLike {
+
+    /** "postId:userId" */
+    @Id
+    private String id;
+
+    private String postId;
+    private Long userId;
+    private Instant createdAt;
+
+    public static String idOf(String postId, Long userId) {
+        return postId + ":" + userId;
+    }
+}
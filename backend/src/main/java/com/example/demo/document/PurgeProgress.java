@@ -0,0 +1,34 @@
+package com.example.demo.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of the current or last purge run of one target. A run that has no
+ * finishedAt was interrupted; the next run resumes it with the same cutoff.
+ */
+@Document(collection = "purge_progress")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurgeProgress {
+
+    /** Purge target name */
+    @Id
+    private String id;
+
+    /** Rows soft-deleted before this instant are purged by the run */
+    private Instant cutoff;
+
+    private long deleted;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,42 @@
+package com.example.demo.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Materialized home timeline of one user: references to posts of the accounts they
+ * follow, newest first, capped at posts.timeline.max-entries by the $push/$slice that
+ * writes it. Posts of high-follower accounts are not pushed here; they are merged in
+ * at read time.
+ */
+@Document(collection = "timelines")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Timeline {
+
+    /** Owner user id */
+    @Id
+    private Long id;
+
+    private List<Entry> entries;
+    private Instant updatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String postId;
+        private Integer authorId;
+        private Instant createdAt;
+    }
+}
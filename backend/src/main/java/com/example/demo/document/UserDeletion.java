@@ -0,0 +1,42 @@
+package com.example.demo.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of the content cascade that follows an account deletion. Phases run in
+ * declaration order; a record without finishedAt is picked up again after a restart.
+ */
+@Document(collection = "user_deletions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletion {
+
+    public enum Phase {
+        POSTS, COMMENTS, LIKES, MESSAGES, MEMBERSHIPS, FOLLOWS, DONE
+    }
+
+    /** Deleted user's id */
+    @Id
+    private Long id;
+
+    private Phase phase;
+
+    /** Documents and rows handled so far, per phase */
+    @Builder.Default
+    private Map<String, Long> processed = new LinkedHashMap<>();
+
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,37 @@
+package com.example.demo.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Node directory entry: user {@code userId} has at least one live session on backend
+ * node {@code nodeId}. Indexes (userId lookup and the lastSeenAt TTL that reaps
+ * entries of crashed nodes) are created by migration 007.
+ */
+@Document(collection = "user_node_routes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserNodeRoute {
+
+    /** "userId:nodeId" */
+    @Id
+    private String id;
+
+    private Long userId;
+    private String nodeId;
+
+    /** Refreshed by the owning node while it is alive */
+    private Instant lastSeenAt;
+
+    public static String idOf(Long userId, String nodeId) {
+        return userId + ":" + nodeId;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.dto.internal;
+
+import com.example.demo.dto.response.MessageReceiptEvent;
+import com.example.demo.dto.response.MessageResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change to a conversation's recent history, fanned out to every node so their
+ * message tail caches stay in step with Mongo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageTailEvent {
+
+    public enum Kind {
+        UPSERT, // new or edited message, carried in full
+        REMOVE, // unsent message, by id
+        RECEIPT // delivery/read receipt to apply to the cached status lists
+    }
+
+    private Kind kind;
+    private String conversationId;
+    private MessageResponse message;
+    private String messageId;
+    private MessageReceiptEvent receipt;
+}
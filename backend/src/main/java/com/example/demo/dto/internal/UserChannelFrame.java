@@ -0,0 +1,20 @@
+package com.example.demo.dto.internal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One user-channel frame routed to another node. The body is already serialized so the
+ * receiving node writes it to every local session as-is.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChannelFrame {
+    private List<Long> userIds;
+    private String destination;
+    private String body;
+}
@@ -5,6 +5,8 @@ import lombok.Data;
 @Data
 public class CreateCommentRequest {
     private String postId;
+    /** Comment being replied to; replies to a reply are attached to its top-level comment */
+    private String parentId;
     // userId is obtained from JWT token, not from request body
     private String content;
 }
@@ -0,0 +1,10 @@
+package com.example.demo.dto.request;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class DeliveryAckRequest {
+    private String conversationId;
+    private List<String> messageIds;
+}
@@ -0,0 +1,8 @@
+package com.example.demo.dto.request;
+
+import lombok.Data;
+
+@Data
+public class EditMessageRequest {
+    private String content;
+}
@@ -0,0 +1,18 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Display info of a post or comment author, embedded when the client asks for expand=author */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorResponse {
+    private Long id;
+    private String email;
+    private String fullName;
+    private String avatarUrl;
+}
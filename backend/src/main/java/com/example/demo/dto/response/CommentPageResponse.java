@@ -0,0 +1,18 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentPageResponse {
+    private List<CommentResponse> comments;
+    /** Pass back as {@code cursor} for the next page; null after the last comment */
+    private String nextCursor;
+}
@@ -7,7 +7,10 @@ import java.time.Instant;
 public class CommentResponse {
     private String id;
     private String postId;
+    private String parentId;
     private Integer userId;
+    private AuthorResponse author; // Only with expand=author
     private String content;
     private Instant createdAt;
+    private Integer repliesCount;
 }
@@ -0,0 +1,22 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationChangesResponse {
+    private String conversationId;
+    /** New, edited and tombstoned (status DELETED) messages in version order */
+    private List<MessageResponse> changes;
+    private Long currentVersion;
+    /** Watermark to send as sinceVersion on the next call */
+    private Long nextSinceVersion;
+    private boolean hasMore;
+}
@@ -15,4 +15,8 @@ public class ConversationResponse {
     private Integer unreadCount;
     private Instant createdAt;
     private Instant updatedAt;
+    /** Current change version; pass as sinceVersion to the changes endpoint */
+    private Long version;
+    /** List updates for large groups arrive on /topic/conversation-updates.{id} */
+    private Boolean largeGroup;
 }
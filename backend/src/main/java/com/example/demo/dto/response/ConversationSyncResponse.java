@@ -0,0 +1,30 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSyncResponse {
+    private ConversationResponse conversation;
+    /**
+     * First sync: the latest messages, newest first. Incremental: messages created,
+     * edited or unsent since the cursor, oldest change first. Capped either way.
+     */
+    private List<MessageResponse> messages;
+    /**
+     * First sync: older history exists, paged as usual. Incremental: more changes exist,
+     * and the next page (same cursor) resumes inside this conversation.
+     */
+    private boolean hasMoreMessages;
+    /** Read position per participant id */
+    private Map<String, Instant> readCursors;
+}
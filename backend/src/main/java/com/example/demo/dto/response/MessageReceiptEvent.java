@@ -0,0 +1,28 @@
+package com.example.demo.dto.response;
+
+import com.example.demo.enums.DeliveryStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Aggregated delivery/read receipt. Frames on /topic/receipts.{conversationId} carry
+ * a list of these: one entry per user whose statuses changed in a single bulk update,
+ * instead of one frame per message.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageReceiptEvent {
+    private String conversationId;
+    private Long userId;
+    private DeliveryStatus status;
+    private List<String> messageIds; // null when the receipt covers everything up to timestamp
+    private Long messageCount;
+    private Instant timestamp;
+}
@@ -1,5 +1,6 @@
 package com.example.demo.dto.response;
 
+import com.example.demo.enums.EntityStatus;
 import com.example.demo.enums.MessageType;
 import lombok.Data;
 import java.time.Instant;
@@ -16,4 +17,7 @@ public class MessageResponse {
     private MessageType type;
     private Instant sentAt;
     private List<MessageStatusResponse> statusList;
+    private EntityStatus status;
+    private Instant editedAt;
+    private Long version;
 }
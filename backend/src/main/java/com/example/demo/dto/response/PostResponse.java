@@ -9,19 +9,11 @@ public class PostResponse {
     private String id;
     private String slug;
     private Integer userId;
-    private PostAuthorResponse author; // Author info to avoid N+1 queries
+    private AuthorResponse author; // Only with expand=author
     private String content;
     private List<MediaItemResponse> media;
     private Instant createdAt;
     private Instant updatedAt;
     private Integer likes;
     private Integer commentsCount;
-    
-    @Data
-    public static class PostAuthorResponse {
-        private Integer id;
-        private String email;
-        private String fullName;
-        private String avatarUrl;
-    }
 }
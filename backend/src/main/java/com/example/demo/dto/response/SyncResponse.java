@@ -0,0 +1,28 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    /** Send back as {@code cursor} on the next sync */
+    private String cursor;
+    private List<ConversationSyncResponse> conversations;
+    /**
+     * Large groups: the caller's read position, by conversation id, where it moved since
+     * the previous pass. Reading does not move a large group's changedAt, so such a group
+     * is not otherwise in {@code conversations} for it. Only on the first page of a pass.
+     */
+    private Map<String, Instant> readPositions;
+    /** This page was capped; sync again with the cursor right away to get the rest */
+    private boolean hasMore;
+}
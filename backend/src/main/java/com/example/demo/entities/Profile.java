@@ -4,7 +4,11 @@ import com.example.demo.enums.EntityStatus;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -13,12 +17,18 @@ import java.time.LocalDate;
 @Setter
 @Entity
 @Table(name = "profiles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profiles")
+@NaturalIdCache(region = "profiles-by-user")
 public class Profile {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profiles_seq")
+    @SequenceGenerator(name = "profiles_seq", sequenceName = "profiles_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
+    /** One profile per user (uk_profiles_user_id), looked up by user through the natural-id cache */
+    @NaturalId
     @OneToOne
     @JoinColumn(name = "user_id", unique = true)
     private User user;
@@ -4,18 +4,34 @@ import com.example.demo.enums.EntityStatus;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import java.time.Instant;
+
+/**
+ * Second-level cached (region "users"), and by email through the natural-id cache
+ * (region "users-by-email"); regions are configured in application.conf.
+ */
 @Getter
 @Setter
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
+    /** Set once at registration; unique index uk_users_email */
+    @NaturalId
     @Column(name = "email", nullable = false)
     private String email;
 
@@ -45,4 +61,12 @@ public class User {
     @Column(name = "last_seen")
     private Instant lastSeen;
 
+    /**
+     * Only changed through {@code UserRepository.adjustFollowersCount}; not updatable so
+     * saving a stale User can never write an old count back.
+     */
+    @ColumnDefault("0")
+    @Column(name = "followers_count", nullable = false, updatable = false)
+    private Integer followersCount = 0;
+
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.demo.entities;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Follow graph edge: {@code followerId} follows {@code followeeId}. The primary key
+ * serves "who do I follow", idx_user_follows_followee_follower serves fan-out.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "user_follows")
+@IdClass(UserFollow.Key.class)
+public class UserFollow {
+    @Id
+    @Column(name = "follower_id", nullable = false)
+    private Long followerId;
+
+    @Id
+    @Column(name = "followee_id", nullable = false)
+    private Long followeeId;
+
+    @ColumnDefault("now()")
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long followerId;
+        private Long followeeId;
+    }
+}
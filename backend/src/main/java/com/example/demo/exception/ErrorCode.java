@@ -18,6 +18,7 @@ public enum ErrorCode {
     INVALID_TOKEN(1006, "Invalid token", HttpStatus.UNAUTHORIZED),
     PASSWORD_TOO_SHORT(1007, "Password must be at least 8 characters", HttpStatus.BAD_REQUEST),
     PREMIUM_REQUIRED(1008, "Premium subscription required to access this resource", HttpStatus.FORBIDDEN),
+    CANNOT_FOLLOW_SELF(1009, "You cannot follow yourself", HttpStatus.BAD_REQUEST),
     
     CONVERSATION_NOT_FOUND(5001, "Conversation not found", HttpStatus.NOT_FOUND),
     MESSAGE_NOT_FOUND(5002, "Message not found", HttpStatus.NOT_FOUND),
@@ -25,6 +26,11 @@ public enum ErrorCode {
     USER_NOT_IN_CONVERSATION(5004, "User is not a participant in this conversation", HttpStatus.FORBIDDEN),
     EMPTY_MESSAGE_CONTENT(5005, "Message content cannot be empty", HttpStatus.BAD_REQUEST),
     INVALID_PARTICIPANT_LIST(5006, "Participant list must contain at least 2 users", HttpStatus.BAD_REQUEST),
+    INVALID_SEARCH_QUERY(5007, "Search query must be between 2 and 200 characters", HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(5008, "Invalid pagination cursor", HttpStatus.BAD_REQUEST),
+    MESSAGE_CHANGE_FORBIDDEN(5009, "Only the sender can edit or unsend this message", HttpStatus.FORBIDDEN),
+    SEARCH_CONVERSATION_REQUIRED(5010, "Message search needs a conversationId", HttpStatus.BAD_REQUEST),
+    MESSAGE_CHANGE_CONFLICT(5011, "The message was changed at the same time, try again", HttpStatus.CONFLICT),
     
     MEDIA_UPLOAD_FAILED(6001, "Failed to upload media to Cloudinary", HttpStatus.INTERNAL_SERVER_ERROR),
     INVALID_MEDIA_TYPE(6002, "Invalid media type. Supported types: IMAGE, VIDEO", HttpStatus.BAD_REQUEST),
@@ -29,6 +29,11 @@ public interface ChatMapper {
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "directKey", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "changedAt", ignore = true)
+    @Mapping(target = "readCursors", ignore = true)
+    @Mapping(target = "largeGroup", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "lastMessage", ignore = true)
@@ -44,6 +49,10 @@ public interface ChatMapper {
     @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "attachments", ignore = true)
     @Mapping(target = "type", ignore = true)
+    @Mapping(target = "searchText", ignore = true)
+    @Mapping(target = "editedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "changedAt", ignore = true)
     Message toMessage(SendMessageRequest request);
     
     MessageStatusResponse toMessageStatusResponse(Message.MessageStatus messageStatus);
@@ -13,6 +13,7 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface CommentMapper {
     
+    @Mapping(target = "author", ignore = true)
     CommentResponse toResponse(Comment comment);
     
     @Mapping(target = "id", ignore = true)
@@ -20,11 +21,14 @@ public interface CommentMapper {
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "userId", ignore = true)
+    @Mapping(target = "repliesCount", ignore = true)
     Comment toDocument(CreateCommentRequest request);
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "postId", ignore = true)
+    @Mapping(target = "parentId", ignore = true)
     @Mapping(target = "userId", ignore = true)
+    @Mapping(target = "repliesCount", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "deletedAt", ignore = true)
@@ -26,6 +26,7 @@ public interface PostMapper {
     @Mapping(target = "commentsCount", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "pulled", ignore = true)
     @Mapping(target = "userId", ignore = true)
     Post toDocument(CreatePostRequest request);
     
@@ -38,10 +39,14 @@ public interface PostMapper {
     @Mapping(target = "commentsCount", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "deletedAt", ignore = true)
+    @Mapping(target = "pulled", ignore = true)
     void updateDocumentFromRequest(UpdatePostRequest request, @MappingTarget Post post);
     
     List<PostResponse> toResponseList(List<Post> posts);
     
+    /** Copy of a possibly shared (cached) response that can be modified safely */
+    PostResponse copy(PostResponse response);
+    
     MediaItemResponse toMediaItemResponse(Post.MediaItem mediaItem);
     
     Post.MediaItem toMediaItem(MediaItemRequest mediaItemRequest);
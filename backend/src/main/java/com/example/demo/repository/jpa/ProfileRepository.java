@@ -2,14 +2,45 @@ package com.example.demo.repository.jpa;
 
 import com.example.demo.entities.Profile;
 import com.example.demo.enums.EntityStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProfileRepository extends JpaRepository<Profile, Long> {
-    Optional<Profile> findByUser_Id(Long userId);
-    Optional<Profile> findByUser_IdAndStatus(Long userId, EntityStatus status);
-    List<Profile> findByStatusAndDeletedAtBefore(EntityStatus status, Instant deletedAt);
+public interface ProfileRepository extends JpaRepository<Profile, Long>, ProfileRepositoryCustom {
+
+    default Optional<Profile> findByUser_IdAndStatus(Long userId, EntityStatus status) {
+        return findByUser_Id(userId).filter(profile -> profile.getStatus() == status);
+    }
+
+    /** One purge batch: ids of profiles soft-deleted before the cutoff, oldest ids first */
+    @Query("select p.id from Profile p where p.status = :status and p.deletedAt < :cutoff order by p.id")
+    List<Long> findIdsByStatusAndDeletedAtBefore(@Param("status") EntityStatus status,
+                                                 @Param("cutoff") Instant cutoff,
+                                                 Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Profile p where p.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+
+    /** Display info of a page of authors in one query; users without an active profile have null name/avatar */
+    @Query("select u.id as id, u.email as email, p.fullName as fullName, p.avatarUrl as avatarUrl "
+            + "from User u left join Profile p on p.user = u and p.status = :status "
+            + "where u.id in :userIds and u.status = :status")
+    List<AuthorView> findAuthors(@Param("userIds") Collection<Long> userIds, @Param("status") EntityStatus status);
+
+    interface AuthorView {
+        Long getId();
+        String getEmail();
+        String getFullName();
+        String getAvatarUrl();
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.demo.repository.jpa;
+
+import com.example.demo.entities.Profile;
+
+import java.util.Optional;
+
+/** Lookups that go through the Hibernate second-level cache rather than a JPQL query */
+public interface ProfileRepositoryCustom {
+
+    /** Natural-id load by owning user: served from the profiles-by-user region once resolved */
+    Optional<Profile> findByUser_Id(Long userId);
+}
@@ -0,0 +1,23 @@
+package com.example.demo.repository.jpa;
+
+import com.example.demo.entities.Profile;
+import com.example.demo.entities.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+class ProfileRepositoryCustomImpl implements ProfileRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Profile> findByUser_Id(Long userId) {
+        Session session = entityManager.unwrap(Session.class);
+        // The natural id is the user association; an uninitialized reference carries its id
+        return session.bySimpleNaturalId(Profile.class)
+                .loadOptional(session.getReference(User.class, userId));
+    }
+}
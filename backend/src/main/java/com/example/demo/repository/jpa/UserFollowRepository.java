@@ -0,0 +1,49 @@
+package com.example.demo.repository.jpa;
+
+import com.example.demo.entities.UserFollow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserFollowRepository extends JpaRepository<UserFollow, UserFollow.Key> {
+
+    /** Idempotent follow; returns 0 when the edge already exists */
+    @Modifying
+    @Query(value = "INSERT INTO user_follows (follower_id, followee_id, created_at) VALUES (:followerId, :followeeId, :createdAt) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId,
+                       @Param("followeeId") Long followeeId,
+                       @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query("delete from UserFollow f where f.followerId = :followerId and f.followeeId = :followeeId")
+    int deleteEdge(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    /** One keyset batch of an author's followers, in id order */
+    @Query("select f.followerId from UserFollow f where f.followeeId = :followeeId and f.followerId > :afterId order by f.followerId")
+    List<Long> findFollowerIdsAfter(@Param("followeeId") Long followeeId,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    /** Accounts the user still follows, a bounded batch at a time */
+    @Query("select f.followeeId from UserFollow f where f.followerId = :followerId order by f.followeeId")
+    List<Long> findFolloweeIds(@Param("followerId") Long followerId, Pageable pageable);
+
+    /** Drops every edge pointing at a deleted account in one statement */
+    @Transactional
+    @Modifying
+    @Query("delete from UserFollow f where f.followeeId = :followeeId")
+    int deleteAllByFolloweeId(@Param("followeeId") Long followeeId);
+
+    /** Followed accounts whose posts are not pushed and must be pulled at read time */
+    @Query("select u.id from UserFollow f join User u on u.id = f.followeeId "
+            + "where f.followerId = :followerId and u.followersCount >= :threshold")
+    List<Long> findFolloweesWithFollowersAtLeast(@Param("followerId") Long followerId,
+                                                 @Param("threshold") int threshold);
+}
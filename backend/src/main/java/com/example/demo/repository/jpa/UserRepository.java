@@ -2,15 +2,35 @@ package com.example.demo.repository.jpa;
 
 import com.example.demo.entities.User;
 import com.example.demo.enums.EntityStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-    Optional<User> findByIdAndStatus(Long id, EntityStatus status);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    /** Goes through findById, and so the entity cache, instead of a derived JPQL query */
+    default Optional<User> findByIdAndStatus(Long id, EntityStatus status) {
+        return findById(id).filter(user -> user.getStatus() == status);
+    }
+
     List<User> findByStatus(EntityStatus status);
-    List<User> findByStatusAndDeletedAtBefore(EntityStatus status, Instant deletedAt);
+
+    /** One purge batch: ids of users soft-deleted before the cutoff, oldest ids first */
+    @Query("select u.id from User u where u.status = :status and u.deletedAt < :cutoff order by u.id")
+    List<Long> findIdsByStatusAndDeletedAtBefore(@Param("status") EntityStatus status,
+                                                 @Param("cutoff") Instant cutoff,
+                                                 Pageable pageable);
+
+    /** Single DELETE ... WHERE id IN; profiles and follow edges go with the FK cascade */
+    @Transactional
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,27 @@
+package com.example.demo.repository.jpa;
+
+import com.example.demo.entities.User;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/** Lookups that go through the Hibernate second-level cache rather than a JPQL query */
+public interface UserRepositoryCustom {
+
+    /** Natural-id load: served from the users-by-email region once resolved */
+    Optional<User> findByEmail(String email);
+
+    /**
+     * Moves users.followers_count and returns the new value; the user is evicted from the
+     * entity cache once the change commits
+     */
+    int adjustFollowersCount(Long id, int delta);
+
+    /**
+     * Sets users.last_seen for each active user in one JDBC batch, without loading them;
+     * the users are evicted from the entity cache once the change commits. Returns how
+     * many rows were updated.
+     */
+    int updateLastSeen(Map<Long, Instant> lastSeen);
+}
@@ -0,0 +1,108 @@
+package com.example.demo.repository.jpa;
+
+import com.example.demo.entities.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    /** Not a mapped table: invalidates nothing but keeps Hibernate from clearing every region */
+    private static final String FOLLOWERS_COUNT_SPACE = "users_followers_count";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+
+    @Override
+    @Transactional
+    public int adjustFollowersCount(Long id, int delta) {
+        // Without a synchronized space Hibernate treats a native update as touching every
+        // table and clears all regions; naming users would still clear the whole User and
+        // users-by-email regions on each follow. followers_count is only read through the
+        // entity, so the statement is synchronized on a space no cached entity maps to and
+        // the one affected user is evicted once the change commits. RETURNING hands back the
+        // count this statement produced, so concurrent callers each see a distinct value.
+        Number followers = (Number) entityManager.createNativeQuery(
+                        "update users set followers_count = followers_count + :delta where id = :id "
+                                + "returning followers_count")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(FOLLOWERS_COUNT_SPACE)
+                .setParameter("delta", delta)
+                .setParameter("id", id)
+                .getSingleResult();
+
+        evictAfterCommit(List.of(id));
+        return followers.intValue();
+    }
+
+    @Override
+    @Transactional
+    public int updateLastSeen(Map<Long, Instant> lastSeen) {
+        if (lastSeen.isEmpty()) {
+            return 0;
+        }
+        // Plain JDBC rather than loading the users: a dirty-checked save would write back
+        // every column and revert a soft delete or password change committed in between.
+        // Binds the Instant the way Hibernate does for the TIMESTAMP column, as UTC.
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "update users set last_seen = ? where id = ? and status = 'ACTIVE'")) {
+                Calendar utc = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+                for (Map.Entry<Long, Instant> entry : lastSeen.entrySet()) {
+                    statement.setTimestamp(1, Timestamp.from(entry.getValue()), utc);
+                    statement.setLong(2, entry.getKey());
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+
+        evictAfterCommit(lastSeen.keySet());
+        int updated = 0;
+        for (int count : counts) {
+            updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return updated;
+    }
+
+    /** Evicting before commit lets a concurrent read re-cache the old row in between */
+    private void evictAfterCommit(Collection<Long> ids) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(UserRepositoryCustomImpl.this::evictUser);
+                }
+            });
+        } else {
+            ids.forEach(this::evictUser);
+        }
+    }
+
+    private void evictUser(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(User.class, id);
+    }
+}
@@ -16,6 +16,8 @@ public interface ConversationRepository extends MongoRepository<Conversation, St
     
     Optional<Conversation> findByIdAndStatus(String id, EntityStatus status);
     
+    Optional<Conversation> findByDirectKeyAndStatus(String directKey, EntityStatus status);
+    
     @Query("{ 'type': ?0, 'participantIds': { $all: ?1, $size: ?2 }, 'status': ?3 }")
     Optional<Conversation> findByTypeAndParticipantIdsAndStatus(
         ConversationType type, 
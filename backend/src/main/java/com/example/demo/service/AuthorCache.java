@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.AuthorResponse;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.repository.jpa.ProfileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Author display info shared by every post and comment page on this node. A page
+ * resolves all of its authors at once: cached entries are served from memory and the
+ * rest are loaded with one {@link ProfileRepository#findAuthors} query. Unknown or
+ * deleted users are cached as absent too, so they do not cost a query per page.
+ * Profile and account changes evict locally; other nodes catch up within the TTL.
+ */
+@Component
+public class AuthorCache {
+
+    private record Entry(AuthorResponse author, long expiresAt) {
+    }
+
+    private final ProfileRepository profileRepository;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public AuthorCache(
+            ProfileRepository profileRepository,
+            @Value("${posts.authors.cache-ttl:60000}") long ttlMillis,
+            @Value("${posts.authors.cache-size:10000}") int maxEntries) {
+        this.profileRepository = profileRepository;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /** True when the comma-separated expand parameter asks for authors */
+    public static boolean expandsAuthor(String expand) {
+        return expand != null && Arrays.stream(expand.split(","))
+                .map(String::trim)
+                .anyMatch("author"::equalsIgnoreCase);
+    }
+
+    /** Authors by user id; ids of unknown or deleted users are absent from the result */
+    public Map<Long, AuthorResponse> getAll(Collection<Long> userIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, AuthorResponse> result = new HashMap<>();
+        List<Long> missing = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(id -> {
+                    Entry entry = entries.get(id);
+                    if (entry == null || entry.expiresAt() <= now) {
+                        return true;
+                    }
+                    if (entry.author() != null) {
+                        result.put(id, entry.author());
+                    }
+                    return false;
+                })
+                .toList();
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, AuthorResponse> loaded = new HashMap<>();
+        for (ProfileRepository.AuthorView view : profileRepository.findAuthors(missing, EntityStatus.ACTIVE)) {
+            loaded.put(view.getId(), AuthorResponse.builder()
+                    .id(view.getId())
+                    .email(view.getEmail())
+                    .fullName(view.getFullName())
+                    .avatarUrl(view.getAvatarUrl())
+                    .build());
+        }
+
+        if (entries.size() + missing.size() > maxEntries) {
+            entries.clear();
+        }
+        long expiresAt = now + ttlMillis;
+        for (Long id : missing) {
+            AuthorResponse author = loaded.get(id);
+            entries.put(id, new Entry(author, expiresAt));
+            if (author != null) {
+                result.put(id, author);
+            }
+        }
+        return result;
+    }
+
+    public void evict(Long userId) {
+        entries.remove(userId);
+    }
+
+    /**
+     * Evicts once the surrounding transaction commits; evicting before that lets a
+     * concurrent page re-cache the old row in between. Evicts at once outside a transaction.
+     */
+    public void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -5,9 +5,12 @@ import com.example.demo.document.Conversation;
 import com.example.demo.document.Message;
 import com.example.demo.dto.internal.ChatMessage;
 import com.example.demo.dto.request.CreateConversationRequest;
+import com.example.demo.dto.request.EditMessageRequest;
 import com.example.demo.dto.request.SendMessageRequest;
+import com.example.demo.dto.response.ConversationChangesResponse;
 import com.example.demo.dto.response.ConversationResponse;
 import com.example.demo.dto.response.MediaAttachmentResponse;
+import com.example.demo.dto.response.MessageReceiptEvent;
 import com.example.demo.dto.response.MessageResponse;
 import com.example.demo.dto.response.ParticipantResponse;
 import com.example.demo.entities.Profile;
@@ -26,17 +29,35 @@ import com.example.demo.repository.mongo.MessageRepository;
 import com.example.demo.util.MessageSanitizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -53,9 +74,20 @@ public class ChatService {
     private final RateLimiterService rateLimiterService;
     private final MessageSanitizer messageSanitizer;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final MessageTailCache messageTailCache;
+    private final ConversationMemberService conversationMemberService;
+
+    @Value("${chat.group.large-threshold:200}")
+    private int largeGroupThreshold;
 
     private static final int DEFAULT_PAGE_SIZE = 50;
     private static final int MAX_MESSAGE_LENGTH = 10000;
+    private static final int MAX_CHANGES_PAGE_SIZE = 500;
+    /** Shown in place of the name and email of a deleted account */
+    static final String DELETED_USER_NAME = "Deleted user";
+    private static final Duration VERSION_GAP_GRACE = Duration.ofSeconds(30);
+    private static final int MAX_CHANGE_ATTEMPTS = 3;
 
     @Transactional
     public ConversationResponse createConversation(CreateConversationRequest request, Long createdBy) {
@@ -78,11 +110,23 @@ public class ChatService {
             throw new AppException(ErrorCode.USER_NOT_FOUND);
         }
 
+        if (request.getType() == ConversationType.DIRECT) {
+            return upsertDirectConversation(
+                    request.getParticipantIds().get(0),
+                    request.getParticipantIds().get(1),
+                    createdBy
+            );
+        }
+
         Conversation conversation = chatMapper.toConversation(request);
         conversation.setCreatedBy(createdBy);
         conversation.setCreatedAt(Instant.now());
         conversation.setUpdatedAt(Instant.now());
+        conversation.setChangedAt(conversation.getUpdatedAt());
         conversation.setStatus(EntityStatus.ACTIVE);
+        if (request.getType() == ConversationType.GROUP && request.getParticipantIds().size() >= largeGroupThreshold) {
+            conversation.setLargeGroup(true);
+        }
 
         Conversation savedConversation = conversationRepository.save(conversation);
         ConversationResponse response = enrichConversationResponse(savedConversation, createdBy);
@@ -121,35 +165,92 @@ public class ChatService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
     public ConversationResponse getOrCreateDirectConversation(Long user1Id, Long user2Id) {
-        userRepository.findByIdAndStatus(user1Id, EntityStatus.ACTIVE)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
-        userRepository.findByIdAndStatus(user2Id, EntityStatus.ACTIVE)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+        if (user1Id.equals(user2Id)) {
+            throw new AppException(ErrorCode.INVALID_PARTICIPANT_LIST);
+        }
+
+        List<User> users = userRepository.findAllById(List.of(user1Id, user2Id));
+        boolean bothActive = users.size() == 2 && users.stream()
+                .allMatch(user -> user.getStatus() == EntityStatus.ACTIVE);
+        if (!bothActive) {
+            throw new AppException(ErrorCode.USER_NOT_FOUND);
+        }
 
-        List<Long> participantIds = List.of(user1Id, user2Id);
-        List<Conversation> existingConversations = conversationRepository
-                .findByAllParticipantsAndStatus(participantIds, EntityStatus.ACTIVE);
+        return upsertDirectConversation(user1Id, user2Id, user1Id);
+    }
 
-        Conversation existingConversation = existingConversations.stream()
-                .filter(conv -> conv.getType() == ConversationType.DIRECT)
-                .filter(conv -> conv.getParticipantIds().size() == 2)
-                .findFirst()
-                .orElse(null);
+    /**
+     * Get-or-create of a DIRECT conversation as a single findAndModify upsert on the
+     * canonical directKey. The unique partial index on directKey makes concurrent
+     * callers converge on one document; a loser of the insert race re-reads it.
+     */
+    private ConversationResponse upsertDirectConversation(Long user1Id, Long user2Id, Long createdBy) {
+        if (user1Id.equals(user2Id)) {
+            throw new AppException(ErrorCode.INVALID_PARTICIPANT_LIST);
+        }
 
-        if (existingConversation != null) {
-            return enrichConversationResponse(existingConversation, user1Id);
+        String directKey = Conversation.directKeyOf(user1Id, user2Id);
+        ObjectId newId = new ObjectId();
+        Instant now = Instant.now();
+
+        Query query = new Query(Criteria.where("directKey").is(directKey)
+                .and("status").is(EntityStatus.ACTIVE));
+        Update update = new Update()
+                .setOnInsert("_id", newId)
+                .setOnInsert("type", ConversationType.DIRECT)
+                .setOnInsert("participantIds", List.of(Math.min(user1Id, user2Id), Math.max(user1Id, user2Id)))
+                .setOnInsert("createdBy", createdBy)
+                .setOnInsert("createdAt", now)
+                .setOnInsert("updatedAt", now)
+                .setOnInsert("changedAt", now);
+
+        Conversation conversation;
+        try {
+            conversation = mongoTemplate.findAndModify(
+                    query,
+                    update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    Conversation.class
+            );
+        } catch (DuplicateKeyException e) {
+            log.debug("Concurrent creation of direct conversation {}, re-reading", directKey);
+            conversation = conversationRepository.findByDirectKeyAndStatus(directKey, EntityStatus.ACTIVE)
+                    .orElseThrow(() -> new AppException(ErrorCode.CONVERSATION_NOT_FOUND));
         }
 
-        CreateConversationRequest request = new CreateConversationRequest();
-        request.setType(ConversationType.DIRECT);
-        request.setParticipantIds(participantIds);
+        ConversationResponse response = enrichConversationResponse(conversation, createdBy);
 
-        return createConversation(request, user1Id);
+        if (newId.toHexString().equals(conversation.getId())) {
+            for (Long participantId : conversation.getParticipantIds()) {
+                if (!participantId.equals(createdBy)) {
+                    messagingTemplate.convertAndSendToUser(
+                            participantId.toString(),
+                            "/queue/conversations",
+                            response
+                    );
+                }
+            }
+        }
+
+        return response;
     }
 
     public List<MessageResponse> getMessages(String conversationId, Long userId, int page, int size) {
+        return getMessages(conversationId, userId, page, size, null);
+    }
+
+    /**
+     * Page 0, and reads of what came after a message id the client already has, are
+     * answered from {@link MessageTailCache} when the conversation is resident, once the
+     * conversation is known to be active and the caller a participant. A page-0
+     * miss loads the tail once and the cache keeps it current from then on; deeper pages
+     * and anchors older than the tail go to Mongo.
+     */
+    public List<MessageResponse> getMessages(String conversationId, Long userId, int page, int size, String after) {
+        int pageSize = size > 0 ? size : DEFAULT_PAGE_SIZE;
+        boolean hasAfter = after != null && !after.isBlank();
+
         Conversation conversation = conversationRepository
                 .findByIdAndStatus(conversationId, EntityStatus.ACTIVE)
                 .orElseThrow(() -> new AppException(ErrorCode.CONVERSATION_NOT_FOUND));
@@ -158,9 +259,39 @@ public class ChatService {
             throw new AppException(ErrorCode.USER_NOT_IN_CONVERSATION);
         }
 
-        int pageSize = size > 0 ? size : DEFAULT_PAGE_SIZE;
-        Pageable pageable = PageRequest.of(page, pageSize);
+        if (page == 0) {
+            Optional<List<MessageResponse>> cached = hasAfter
+                    ? messageTailCache.after(conversationId, after, pageSize)
+                    : messageTailCache.latest(conversationId, pageSize);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+
+        if (hasAfter) {
+            return getMessagesAfter(conversationId, after, pageSize);
+        }
+
+        int tailSize = messageTailCache.getTailSize();
+        Optional<MessageTailCache.Reservation> reservation = page == 0 && pageSize <= tailSize
+                ? messageTailCache.reserve(conversationId)
+                : Optional.empty();
+        if (reservation.isPresent()) {
+            List<MessageResponse> tail;
+            try {
+                tail = loadMessagePage(conversationId, PageRequest.of(0, tailSize));
+            } catch (RuntimeException e) {
+                messageTailCache.evict(reservation.get());
+                throw e;
+            }
+            messageTailCache.fill(reservation.get(), tail, tail.size() < tailSize);
+            return new ArrayList<>(tail.subList(Math.max(0, tail.size() - pageSize), tail.size()));
+        }
+
+        return loadMessagePage(conversationId, PageRequest.of(page, pageSize));
+    }
 
+    private List<MessageResponse> loadMessagePage(String conversationId, Pageable pageable) {
         Page<Message> messagePage = messageRepository
                 .findByConversationIdAndStatusOrderBySentAtDesc(conversationId, EntityStatus.ACTIVE, pageable);
 
@@ -168,11 +299,43 @@ public class ChatService {
                 .map(this::enrichMessageResponse)
                 .collect(Collectors.toList());
 
-        java.util.Collections.reverse(messages);
+        Collections.reverse(messages);
         return messages;
     }
 
-    @Transactional
+    /**
+     * Active messages after the anchor message in (sentAt, _id) order, oldest first,
+     * served by the (conversationId, sentAt, _id) index.
+     */
+    private List<MessageResponse> getMessagesAfter(String conversationId, String after, int pageSize) {
+        if (!ObjectId.isValid(after)) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+
+        Message anchor = messageRepository.findById(after)
+                .filter(message -> conversationId.equals(message.getConversationId()))
+                .orElseThrow(() -> new AppException(ErrorCode.INVALID_CURSOR));
+
+        Query query = Query.query(Criteria.where("conversationId").is(conversationId)
+                        .and("status").is(EntityStatus.ACTIVE)
+                        .orOperator(
+                                Criteria.where("sentAt").gt(anchor.getSentAt()),
+                                Criteria.where("sentAt").is(anchor.getSentAt()).and("_id").gt(new ObjectId(after))))
+                .with(Sort.by(Sort.Direction.ASC, "sentAt", "_id"))
+                .limit(pageSize);
+        query.fields().exclude("searchText");
+
+        return mongoTemplate.find(query, Message.class).stream()
+                .map(this::enrichMessageResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Flips the user's statusList entry to READ on every unread message of the
+     * conversation with one server-side updateMany (positional $[s] array filter),
+     * so no message bodies or attachments are loaded into the JVM, then pushes a
+     * single aggregated receipt to the conversation's receipt topic.
+     */
     public void markAsRead(String conversationId, Long userId) {
         Conversation conversation = conversationRepository
                 .findByIdAndStatus(conversationId, EntityStatus.ACTIVE)
@@ -182,22 +345,50 @@ public class ChatService {
             throw new AppException(ErrorCode.USER_NOT_IN_CONVERSATION);
         }
 
-        List<Message> unreadMessages = messageRepository
-                .findUnreadMessagesByConversationAndUser(conversationId, userId, EntityStatus.ACTIVE);
-
         Instant now = Instant.now();
-        for (Message message : unreadMessages) {
-            if (message.getStatusList() != null) {
-                for (Message.MessageStatus status : message.getStatusList()) {
-                    if (status.getUserId().equals(userId) && status.getStatus() != DeliveryStatus.READ) {
-                        status.setStatus(DeliveryStatus.READ);
-                        status.setTimestamp(now);
-                    }
-                }
-            }
+
+        if (conversation.isLarge()) {
+            // One member row instead of touching every message; no per-reader receipts in large
+            // groups. The conversation's changedAt is left alone so one member reading does not
+            // put the group in every member's sync; the reader's other devices get the new
+            // position from SyncResponse.readPositions.
+            conversationMemberService.markRead(conversationId, userId, now);
+            return;
         }
 
-        messageRepository.saveAll(unreadMessages);
+        // Bounded by sentAt so the receipt's timestamp describes exactly what was marked
+        Query query = new Query(Criteria.where("conversationId").is(conversationId)
+                .and("status").is(EntityStatus.ACTIVE)
+                .and("sentAt").lte(now)
+                .and("statusList").elemMatch(Criteria.where("userId").is(userId)
+                        .and("status").ne(DeliveryStatus.READ.name())));
+        Update update = new Update()
+                .set("statusList.$[s].status", DeliveryStatus.READ.name())
+                .set("statusList.$[s].timestamp", now)
+                .filterArray(Criteria.where("s.userId").is(userId)
+                        .and("s.status").ne(DeliveryStatus.READ.name()));
+
+        long modified = mongoTemplate.updateMulti(query, update, Message.class).getModifiedCount();
+
+        if (modified > 0) {
+            MessageReceiptEvent receipt = MessageReceiptEvent.builder()
+                    .conversationId(conversationId)
+                    .userId(userId)
+                    .status(DeliveryStatus.READ)
+                    .messageCount(modified)
+                    .timestamp(now)
+                    .build();
+            messagingTemplate.convertAndSend("/topic/receipts." + conversationId, List.of(receipt));
+            messageTailCache.publishReceipt(receipt);
+
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(conversationId)),
+                    new Update()
+                            .set("readCursors." + userId, now)
+                            .set("changedAt", now),
+                    Conversation.class);
+            log.debug("Marked {} messages as read for user {} in conversation {}", modified, userId, conversationId);
+        }
     }
 
     public MessageResponse sendMessage(SendMessageRequest request, Long senderId) {
@@ -288,6 +479,7 @@ public class ChatService {
         message.setType(messageType);
         message.setSentAt(chatMessage.getSentAt());
         message.setStatus(EntityStatus.ACTIVE);
+        message.setSearchText(MessageSearchService.indexedTextOf(chatMessage.getContent()));
 
         if (chatMessage.getAttachments() != null) {
             List<Message.MediaAttachment> attachments = chatMessage.getAttachments().stream()
@@ -303,31 +495,39 @@ public class ChatService {
             message.setAttachments(attachments);
         }
 
-        List<Message.MessageStatus> statusList = new ArrayList<>();
-        for (Long participantId : conversation.getParticipantIds()) {
-            Message.MessageStatus status = new Message.MessageStatus();
-            status.setUserId(participantId);
-            status.setStatus(participantId.equals(chatMessage.getSenderId())
-                    ? DeliveryStatus.READ
-                    : DeliveryStatus.SENT);
-            status.setTimestamp(Instant.now());
-            statusList.add(status);
+        if (!conversation.isLarge()) {
+            List<Message.MessageStatus> statusList = new ArrayList<>();
+            for (Long participantId : conversation.getParticipantIds()) {
+                Message.MessageStatus status = new Message.MessageStatus();
+                status.setUserId(participantId);
+                status.setStatus(participantId.equals(chatMessage.getSenderId())
+                        ? DeliveryStatus.READ
+                        : DeliveryStatus.SENT);
+                status.setTimestamp(Instant.now());
+                statusList.add(status);
+            }
+            message.setStatusList(statusList);
         }
-        message.setStatusList(statusList);
 
-        Message savedMessage = messageRepository.save(message);
+        message.setId(new ObjectId().toHexString());
 
         Conversation.LastMessage lastMessage = new Conversation.LastMessage();
-        lastMessage.setMessageId(savedMessage.getId());
-        lastMessage.setContent(savedMessage.getContent());
-        lastMessage.setSenderId(savedMessage.getSenderId());
-        lastMessage.setSentAt(savedMessage.getSentAt());
+        lastMessage.setMessageId(message.getId());
+        lastMessage.setContent(message.getContent());
+        lastMessage.setSenderId(message.getSenderId());
+        lastMessage.setSentAt(message.getSentAt());
 
-        conversation.setLastMessage(lastMessage);
-        conversation.setUpdatedAt(Instant.now());
-        conversationRepository.save(conversation);
+        // lastMessage, updatedAt and the version bump in one atomic update instead of a
+        // full-document save that would overwrite concurrent version increments
+        message.setVersion(allocateVersion(conversation.getId(), new Update()
+                .set("lastMessage", lastMessage)
+                .set("updatedAt", Instant.now())));
+        message.setChangedAt(Instant.now());
+
+        Message savedMessage = messageRepository.insert(message);
 
         chatMessage.setMessageId(savedMessage.getId());
+        messageTailCache.publishUpsert(enrichMessageResponse(savedMessage));
 
         rabbitTemplate.convertAndSend(
                 RabbitMQConfig.CHAT_EXCHANGE,
@@ -336,22 +536,308 @@ public class ChatService {
         );
     }
 
-    private ConversationResponse enrichConversationResponse(Conversation conversation, Long userId) {
-        ConversationResponse response = chatMapper.toConversationResponse(conversation);
+    /**
+     * Replaces the content of one of the sender's own messages and bumps the
+     * conversation version so the edit shows up in the changes feed.
+     */
+    public MessageResponse editMessage(String messageId, EditMessageRequest request, Long userId) {
+        if (request.getContent() == null || request.getContent().trim().isEmpty()) {
+            throw new AppException(ErrorCode.EMPTY_MESSAGE_CONTENT);
+        }
+        messageSanitizer.validateLength(request.getContent(), MAX_MESSAGE_LENGTH);
+        String sanitizedContent = messageSanitizer.sanitize(request.getContent());
+
+        Message existing = findOwnActiveMessage(messageId, userId);
+        Message updated = applyChange(existing, now -> new Update()
+                .set("content", sanitizedContent)
+                .set("searchText", MessageSearchService.indexedTextOf(sanitizedContent))
+                .set("editedAt", now));
+
+        updateLastMessagePreview(updated.getConversationId(), messageId, sanitizedContent);
+        MessageResponse response = publishChange(updated);
+        messageTailCache.publishUpsert(response);
+        return response;
+    }
 
-        List<ParticipantResponse> participants = new ArrayList<>();
-        for (Long participantId : conversation.getParticipantIds()) {
-            User user = userRepository.findById(participantId).orElse(null);
-            if (user != null) {
-                Profile profile = profileRepository.findByUser_Id(participantId).orElse(null);
-                ParticipantResponse participantResponse = new ParticipantResponse();
-                participantResponse.setUserId(participantId);
-                participantResponse.setUsername(user.getEmail());
-                participantResponse.setDisplayName(profile != null ? profile.getFullName() : user.getEmail());
-                participants.add(participantResponse);
+    /**
+     * Unsends one of the sender's own messages by turning it into a tombstone: content,
+     * attachments and search text are removed, id/sentAt/version stay so clients that
+     * sync through the changes feed can drop it locally. Tombstones never expire
+     * (migration 018 gives messages no TTL): a missing one would read as an abandoned
+     * version gap.
+     */
+    public MessageResponse unsendMessage(String messageId, Long userId) {
+        Message existing = findOwnActiveMessage(messageId, userId);
+        Message tombstone = applyChange(existing, now -> new Update()
+                .set("status", EntityStatus.DELETED)
+                .set("deletedAt", now)
+                .unset("content")
+                .unset("attachments")
+                .unset("searchText"));
+
+        updateLastMessagePreview(tombstone.getConversationId(), messageId, null);
+        messageTailCache.publishRemove(tombstone.getConversationId(), messageId);
+        return publishChange(tombstone);
+    }
+
+    /**
+     * Returns messages created, edited or unsent after {@code sinceVersion}, in version
+     * order, from the (conversationId, version) index. {@code nextSinceVersion} only
+     * advances over contiguous versions: a version allocated by a write that has not
+     * landed yet leaves a gap, and the client re-reads from before it next time. Versions
+     * a message has moved off (edit, unsend) or that were allocated for a change that
+     * lost a race are listed in its supersededVersions and are not gaps. Other gaps
+     * older than {@link #VERSION_GAP_GRACE} are treated as abandoned writes.
+     */
+    public ConversationChangesResponse getChanges(String conversationId, Long userId, long sinceVersion, int limit) {
+        Conversation conversation = conversationRepository
+                .findByIdAndStatus(conversationId, EntityStatus.ACTIVE)
+                .orElseThrow(() -> new AppException(ErrorCode.CONVERSATION_NOT_FOUND));
+
+        if (!conversation.getParticipantIds().contains(userId)) {
+            throw new AppException(ErrorCode.USER_NOT_IN_CONVERSATION);
+        }
+
+        int pageSize = limit > 0 ? Math.min(limit, MAX_CHANGES_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        Query query = Query.query(Criteria.where("conversationId").is(conversationId)
+                        .and("version").gt(sinceVersion))
+                .with(Sort.by(Sort.Direction.ASC, "version"))
+                .limit(pageSize + 1);
+        query.fields().exclude("searchText", "supersededVersions");
+
+        List<Message> changes = mongoTemplate.find(query, Message.class);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        long upperVersion = hasMore
+                ? changes.get(changes.size() - 1).getVersion()
+                : conversation.getVersion() != null ? conversation.getVersion() : sinceVersion;
+        Set<Long> superseded = supersededVersions(conversationId, sinceVersion, upperVersion);
+
+        long watermark = sinceVersion;
+        boolean blocked = false;
+        Instant gapCutoff = Instant.now().minus(VERSION_GAP_GRACE);
+        for (Message change : changes) {
+            while (superseded.contains(watermark + 1)) {
+                watermark++;
+            }
+            boolean contiguous = change.getVersion() == watermark + 1;
+            boolean abandonedGap = change.getChangedAt() != null && change.getChangedAt().isBefore(gapCutoff);
+            if (!contiguous && !abandonedGap) {
+                blocked = true;
+                break;
+            }
+            watermark = change.getVersion();
+        }
+        while (!blocked && superseded.contains(watermark + 1)) {
+            watermark++;
+        }
+
+        return ConversationChangesResponse.builder()
+                .conversationId(conversationId)
+                .changes(changes.stream().map(this::enrichMessageResponse).collect(Collectors.toList()))
+                .currentVersion(conversation.getVersion() != null ? conversation.getVersion() : 0L)
+                .nextSinceVersion(watermark)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /** Versions in (sinceVersion, upperVersion] that messages of the conversation have moved off */
+    private Set<Long> supersededVersions(String conversationId, long sinceVersion, long upperVersion) {
+        if (upperVersion <= sinceVersion) {
+            return Set.of();
+        }
+        Query query = Query.query(Criteria.where("conversationId").is(conversationId)
+                .and("supersededVersions").elemMatch(new Criteria().gt(sinceVersion).lte(upperVersion)));
+        query.fields().include("supersededVersions");
+
+        Set<Long> superseded = new HashSet<>();
+        for (Message message : mongoTemplate.find(query, Message.class)) {
+            for (Long version : message.getSupersededVersions()) {
+                if (version > sinceVersion && version <= upperVersion) {
+                    superseded.add(version);
+                }
             }
         }
-        response.setParticipants(participants);
+        return superseded;
+    }
+
+    /**
+     * Tombstones up to {@code limit} of a deleted account's remaining messages, the same
+     * way {@link #unsendMessage} does, in one unordered bulk write. Versions are taken
+     * as one block per conversation so the changes feed still carries every tombstone.
+     * Returns how many messages were tombstoned; 0 once none are left.
+     */
+    public int tombstoneMessagesOf(Long senderId, int limit) {
+        Query query = Query.query(Criteria.where("senderId").is(senderId).and("status").is(EntityStatus.ACTIVE))
+                .limit(limit);
+        query.fields().include("_id", "conversationId", "version");
+        List<Message> batch = mongoTemplate.find(query, Message.class);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class);
+        Map<String, Long> allocated = new HashMap<>();
+        Map<String, List<Message>> byConversation = batch.stream()
+                .collect(Collectors.groupingBy(Message::getConversationId));
+
+        byConversation.forEach((conversationId, messages) -> {
+            Conversation updated = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(conversationId)),
+                    new Update().inc("version", messages.size()).set("changedAt", now),
+                    FindAndModifyOptions.options().returnNew(true),
+                    Conversation.class);
+            long version = updated != null ? updated.getVersion() - messages.size() : 0;
+
+            for (Message message : messages) {
+                Update tombstone = new Update()
+                        .set("status", EntityStatus.DELETED)
+                        .set("deletedAt", now)
+                        .set("changedAt", now)
+                        .unset("content")
+                        .unset("attachments")
+                        .unset("searchText");
+                if (updated != null) {
+                    tombstone.set("version", ++version);
+                    allocated.put(message.getId(), version);
+                }
+                if (message.getVersion() != null) {
+                    tombstone.push("supersededVersions", message.getVersion());
+                }
+                bulkOps.updateOne(
+                        Query.query(Criteria.where("_id").is(new ObjectId(message.getId()))
+                                .and("status").is(EntityStatus.ACTIVE)
+                                .and("version").is(message.getVersion())),
+                        tombstone);
+            }
+        });
+        int tombstoned = bulkOps.execute().getModifiedCount();
+
+        if (tombstoned < batch.size() && !allocated.isEmpty()) {
+            // Messages edited or unsent since the read keep their newer version; record the
+            // versions allocated for them so the changes feed does not wait on those holes.
+            BulkOperations releaseOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class);
+            allocated.forEach((messageId, version) -> releaseOps.updateOne(
+                    Query.query(Criteria.where("_id").is(new ObjectId(messageId)).and("version").ne(version)),
+                    new Update().push("supersededVersions", version)));
+            releaseOps.execute();
+        }
+
+        List<String> ids = batch.stream().map(Message::getId).toList();
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("lastMessage.messageId").in(ids)),
+                new Update().unset("lastMessage.content"),
+                Conversation.class);
+        batch.forEach(message -> messageTailCache.publishRemove(message.getConversationId(), message.getId()));
+
+        return batch.size();
+    }
+
+    /**
+     * Moves an active message to a newly allocated conversation version with the fields
+     * from {@code change}. The write is conditioned on the version the message held when
+     * read, and that version is recorded in supersededVersions, so the changes feed can
+     * tell the hole it leaves from a write still in flight. A version that does not end
+     * up on the message (it changed concurrently) is recorded the same way before the
+     * change is retried on the fresh state.
+     */
+    private Message applyChange(Message existing, Function<Instant, Update> change) {
+        Message current = existing;
+        for (int attempt = 0; attempt < MAX_CHANGE_ATTEMPTS; attempt++) {
+            long version = allocateVersion(current.getConversationId(), new Update());
+            Instant now = Instant.now();
+
+            Update update = change.apply(now)
+                    .set("version", version)
+                    .set("changedAt", now);
+            if (current.getVersion() != null) {
+                update.push("supersededVersions", current.getVersion());
+            }
+
+            Message changed = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(new ObjectId(current.getId()))
+                            .and("status").is(EntityStatus.ACTIVE)
+                            .and("version").is(current.getVersion())),
+                    update,
+                    FindAndModifyOptions.options().returnNew(true),
+                    Message.class);
+            if (changed != null) {
+                return changed;
+            }
+
+            releaseVersion(current.getId(), version);
+            current = messageRepository.findByIdAndStatus(current.getId(), EntityStatus.ACTIVE)
+                    .orElseThrow(() -> new AppException(ErrorCode.MESSAGE_NOT_FOUND));
+        }
+        throw new AppException(ErrorCode.MESSAGE_CHANGE_CONFLICT);
+    }
+
+    /** Records a version allocated for this message whose write did not land */
+    private void releaseVersion(String messageId, long version) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(new ObjectId(messageId))),
+                new Update().push("supersededVersions", version),
+                Message.class);
+    }
+
+    private Message findOwnActiveMessage(String messageId, Long userId) {
+        if (!ObjectId.isValid(messageId)) {
+            throw new AppException(ErrorCode.MESSAGE_NOT_FOUND);
+        }
+
+        Message message = messageRepository.findByIdAndStatus(messageId, EntityStatus.ACTIVE)
+                .orElseThrow(() -> new AppException(ErrorCode.MESSAGE_NOT_FOUND));
+
+        if (!message.getSenderId().equals(userId)) {
+            throw new AppException(ErrorCode.MESSAGE_CHANGE_FORBIDDEN);
+        }
+        return message;
+    }
+
+    /**
+     * $inc's the conversation version together with any extra fields in {@code update}
+     * and returns the new value.
+     */
+    private long allocateVersion(String conversationId, Update update) {
+        Conversation updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(conversationId).and("status").is(EntityStatus.ACTIVE)),
+                update.inc("version", 1).set("changedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Conversation.class);
+
+        if (updated == null) {
+            throw new AppException(ErrorCode.CONVERSATION_NOT_FOUND);
+        }
+        return updated.getVersion();
+    }
+
+    private void updateLastMessagePreview(String conversationId, String messageId, String content) {
+        Update update = content != null
+                ? Update.update("lastMessage.content", content)
+                : new Update().unset("lastMessage.content");
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(conversationId).and("lastMessage.messageId").is(messageId)),
+                update,
+                Conversation.class);
+    }
+
+    private MessageResponse publishChange(Message message) {
+        MessageResponse response = enrichMessageResponse(message);
+        messagingTemplate.convertAndSend("/topic/changes." + message.getConversationId(), response);
+        return response;
+    }
+
+    public ConversationResponse enrichConversationResponse(Conversation conversation, Long userId) {
+        ConversationResponse response = chatMapper.toConversationResponse(conversation);
+
+        // Large groups: clients load members on demand, as with conversation updates
+        if (!conversation.isLarge()) {
+            response.setParticipants(participantsOf(conversation));
+        }
 
         if (conversation.getLastMessage() != null) {
             MessageResponse last = new MessageResponse();
@@ -363,18 +849,44 @@ public class ChatService {
             response.setLastMessage(last);
         }
 
-        List<Message> unreadMessages = messageRepository
-                .findUnreadMessagesByConversationAndUser(conversation.getId(), userId, EntityStatus.ACTIVE);
-        response.setUnreadCount(unreadMessages.size());
+        if (conversation.isLarge()) {
+            response.setUnreadCount(conversationMemberService.unreadCount(conversation.getId(), userId));
+        } else {
+            List<Message> unreadMessages = messageRepository
+                    .findUnreadMessagesByConversationAndUser(conversation.getId(), userId, EntityStatus.ACTIVE);
+            response.setUnreadCount(unreadMessages.size());
+        }
 
         return response;
     }
 
-    private MessageResponse enrichMessageResponse(Message message) {
+    private List<ParticipantResponse> participantsOf(Conversation conversation) {
+        List<ParticipantResponse> participants = new ArrayList<>();
+        for (Long participantId : conversation.getParticipantIds()) {
+            User user = userRepository.findById(participantId).orElse(null);
+            if (user != null) {
+                ParticipantResponse participantResponse = new ParticipantResponse();
+                participantResponse.setUserId(participantId);
+                if (user.getStatus() == EntityStatus.ACTIVE) {
+                    Profile profile = profileRepository.findByUser_Id(participantId).orElse(null);
+                    participantResponse.setUsername(user.getEmail());
+                    participantResponse.setDisplayName(profile != null ? profile.getFullName() : user.getEmail());
+                } else {
+                    participantResponse.setDisplayName(DELETED_USER_NAME);
+                }
+                participants.add(participantResponse);
+            }
+        }
+        return participants;
+    }
+
+    public MessageResponse enrichMessageResponse(Message message) {
         MessageResponse response = chatMapper.toMessageResponse(message);
 
         User sender = userRepository.findById(message.getSenderId()).orElse(null);
-        if (sender != null) {
+        if (sender != null && sender.getStatus() != EntityStatus.ACTIVE) {
+            response.setSenderName(DELETED_USER_NAME);
+        } else if (sender != null) {
             Profile profile = profileRepository.findByUser_Id(message.getSenderId()).orElse(null);
             response.setSenderName(profile != null ? profile.getFullName() : sender.getEmail());
         }
@@ -0,0 +1,180 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Conversation;
+import com.example.demo.document.Message;
+import com.example.demo.dto.response.ConversationSyncResponse;
+import com.example.demo.dto.response.MessageResponse;
+import com.example.demo.dto.response.SyncResponse;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.util.KeysetCursor;
+import com.example.demo.util.SyncCursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * One-call catch-up for reconnecting clients.
+ *
+ * <p>Given the cursor from the previous sync, returns every conversation whose
+ * changedAt moved (new/edited/unsent messages, read cursors), each with its message
+ * delta and read cursors, plus the caller's own read positions in large groups, which
+ * are kept per member and do not move the group's changedAt. Both lookups are index range scans on (changedAt, _id)
+ * (migration 011), so the cost follows the number of changes, not the inbox size.
+ *
+ * <p>A pass pages forward in (changedAt, _id) order over an opaque {@link SyncCursor}.
+ * When a page is capped, by the number of conversations or by one conversation's
+ * message changes, the returned cursor points just past the last item returned and
+ * {@code hasMore} asks the client to call again; the _id tie-breaker keeps this moving
+ * even when a bulk write stamped more items than a page with the same changedAt. When a
+ * pass completes, the next one starts at the query time backdated by
+ * {@link #CLOCK_SKEW_MARGIN} to tolerate clock differences between nodes; the overlap
+ * can repeat a few items, which clients merge by message id and version.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatSyncService {
+
+    private static final Duration CLOCK_SKEW_MARGIN = Duration.ofSeconds(5);
+    private static final int MAX_CONVERSATIONS = 100;
+    private static final int DEFAULT_MESSAGES_PER_CONVERSATION = 20;
+    private static final int MAX_MESSAGES_PER_CONVERSATION = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatService chatService;
+    private final ConversationMemberService conversationMemberService;
+
+    public SyncResponse sync(Long userId, String cursor, int messagesPerConversation) {
+        Instant passEnd = Instant.now().minus(CLOCK_SKEW_MARGIN);
+        SyncCursor position = cursor != null && !cursor.isBlank() ? SyncCursor.decode(cursor) : SyncCursor.after(null);
+        Instant since = position.since();
+        int messageCap = messagesPerConversation > 0
+                ? Math.min(messagesPerConversation, MAX_MESSAGES_PER_CONVERSATION)
+                : DEFAULT_MESSAGES_PER_CONVERSATION;
+
+        Criteria criteria = Criteria.where("participantIds").is(userId).and("status").is(EntityStatus.ACTIVE);
+        if (position.conversation() != null) {
+            criteria = criteria.orOperator(after(position.conversation()));
+        } else if (since != null) {
+            criteria = criteria.and("changedAt").gt(since);
+        }
+
+        List<Conversation> changed = mongoTemplate.find(
+                Query.query(criteria)
+                        .with(Sort.by(Sort.Direction.ASC, "changedAt", "_id"))
+                        .limit(MAX_CONVERSATIONS + 1),
+                Conversation.class);
+
+        boolean hasMoreConversations = changed.size() > MAX_CONVERSATIONS;
+        if (hasMoreConversations) {
+            changed = changed.subList(0, MAX_CONVERSATIONS);
+        }
+
+        List<ConversationSyncResponse> conversations = new ArrayList<>(changed.size());
+        KeysetCursor lastConversation = position.conversation();
+        SyncCursor next = null;
+        for (Conversation conversation : changed) {
+            KeysetCursor resume = conversation.getId().equals(position.messagesOf()) ? position.messages() : null;
+            List<Message> messages = messageDelta(conversation.getId(), since, resume, messageCap + 1);
+            boolean hasMoreMessages = messages.size() > messageCap;
+            if (hasMoreMessages) {
+                messages = messages.subList(0, messageCap);
+            }
+
+            List<MessageResponse> messageResponses = messages.stream()
+                    .map(chatService::enrichMessageResponse)
+                    .collect(Collectors.toList());
+
+            conversations.add(ConversationSyncResponse.builder()
+                    .conversation(chatService.enrichConversationResponse(conversation, userId))
+                    .messages(messageResponses)
+                    .hasMoreMessages(hasMoreMessages)
+                    .readCursors(readCursorsOf(conversation, userId))
+                    .build());
+
+            if (hasMoreMessages && since != null) {
+                // Stop here and resume inside this conversation on the next page
+                Message last = messages.get(messages.size() - 1);
+                next = new SyncCursor(since, lastConversation, conversation.getId(),
+                        new KeysetCursor(last.getChangedAt(), last.getId()));
+                break;
+            }
+            lastConversation = new KeysetCursor(changedAtOf(conversation), conversation.getId());
+        }
+
+        if (next == null) {
+            next = hasMoreConversations
+                    ? new SyncCursor(since, lastConversation, null, null)
+                    : SyncCursor.after(passEnd);
+        }
+
+        // Once per pass; the later pages carry the same since
+        boolean firstPage = position.conversation() == null && position.messagesOf() == null;
+        Map<String, Instant> readPositions = since != null && firstPage
+                ? conversationMemberService.readPositionsSince(userId, since)
+                : Map.of();
+
+        return SyncResponse.builder()
+                .cursor(next.encode())
+                .conversations(conversations)
+                .readPositions(readPositions)
+                .hasMore(next.conversation() != null || next.messages() != null)
+                .build();
+    }
+
+    /** Strictly after {@code position} in (changedAt, _id) order */
+    private Criteria[] after(KeysetCursor position) {
+        return new Criteria[] {
+                Criteria.where("changedAt").gt(position.timestamp()),
+                Criteria.where("changedAt").is(position.timestamp()).and("_id").gt(new ObjectId(position.id()))
+        };
+    }
+
+    private Instant changedAtOf(Conversation conversation) {
+        return conversation.getChangedAt() != null ? conversation.getChangedAt() : Instant.EPOCH;
+    }
+
+    /**
+     * Large groups keep no cursor map on the conversation; only the caller's own read
+     * position is returned for them.
+     */
+    private Map<String, Instant> readCursorsOf(Conversation conversation, Long userId) {
+        if (conversation.isLarge()) {
+            Instant lastReadAt = conversationMemberService.lastReadAt(conversation.getId(), userId);
+            return lastReadAt != null ? Map.of(userId.toString(), lastReadAt) : Map.of();
+        }
+        return conversation.getReadCursors() != null ? conversation.getReadCursors() : Map.of();
+    }
+
+    /**
+     * First sync (no cursor yet): the latest active messages; anything older is history,
+     * paged by the client as usual. Incremental: everything whose changedAt moved,
+     * tombstones included, in (changedAt, _id) order from {@code resume} when the
+     * previous page stopped inside this conversation.
+     */
+    private List<Message> messageDelta(String conversationId, Instant since, KeysetCursor resume, int limit) {
+        Query query;
+        if (since == null) {
+            query = Query.query(Criteria.where("conversationId").is(conversationId)
+                            .and("status").is(EntityStatus.ACTIVE))
+                    .with(Sort.by(Sort.Direction.DESC, "sentAt"));
+        } else {
+            Criteria criteria = Criteria.where("conversationId").is(conversationId);
+            criteria = resume != null ? criteria.orOperator(after(resume)) : criteria.and("changedAt").gt(since);
+            query = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "changedAt", "_id"));
+        }
+        query.limit(limit);
+        query.fields().exclude("searchText");
+        return mongoTemplate.find(query, Message.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Comment;
+import com.example.demo.document.Post;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write-behind for Post.commentsCount and Comment.repliesCount. Deltas are summed per
+ * document in memory and written as one unordered bulk update per collection on a
+ * fixed delay, so a burst of comments on one post costs one counter update per window
+ * and creating a comment no longer waits on a second round trip. Counts lag by up to
+ * one window; a node that dies loses at most one window of deltas, and one that is
+ * stopped flushes them first.
+ */
+@Component
+public class CommentCountBuffer {
+
+    private final CounterDeltaBuffer postDeltas;
+    private final CounterDeltaBuffer replyDeltas;
+
+    public CommentCountBuffer(MongoTemplate mongoTemplate) {
+        this.postDeltas = new CounterDeltaBuffer(mongoTemplate, Post.class, "commentsCount");
+        this.replyDeltas = new CounterDeltaBuffer(mongoTemplate, Comment.class, "repliesCount");
+    }
+
+    public void adjustComments(String postId, int delta) {
+        postDeltas.add(postId, delta);
+    }
+
+    public void adjustReplies(String commentId, int delta) {
+        replyDeltas.add(commentId, delta);
+    }
+
+    /** Also runs on shutdown, so a clean stop loses no deltas */
+    @Scheduled(fixedDelayString = "${posts.comments.count-flush-interval:1000}")
+    @PreDestroy
+    public void flush() {
+        postDeltas.flush();
+        replyDeltas.flush();
+    }
+}
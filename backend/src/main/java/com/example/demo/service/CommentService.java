@@ -1,27 +1,31 @@
 package com.example.demo.service;
 
 import com.example.demo.document.Comment;
-import com.example.demo.document.Post;
 import com.example.demo.dto.request.CreateCommentRequest;
 import com.example.demo.dto.request.UpdateCommentRequest;
+import com.example.demo.dto.response.AuthorResponse;
+import com.example.demo.dto.response.CommentPageResponse;
 import com.example.demo.dto.response.CommentResponse;
 import com.example.demo.enums.EntityStatus;
 import com.example.demo.exception.AppException;
 import com.example.demo.exception.ErrorCode;
 import com.example.demo.mapper.CommentMapper;
 import com.example.demo.repository.mongo.CommentRepository;
+import com.example.demo.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -31,10 +35,65 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final MongoTemplate mongoTemplate;
+    private final CommentCountBuffer commentCountBuffer;
+    private final AuthorCache authorCache;
     
-    public List<CommentResponse> getCommentsByPostId(String postId) {
-        List<Comment> comments = commentRepository.findByPostIdAndStatusOrderByCreatedAtAsc(postId, EntityStatus.ACTIVE);
-        return commentMapper.toResponseList(comments);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    /**
+     * Top-level comments of a post, oldest first, as (createdAt, _id) keyset pages over
+     * the index from migration 016.
+     */
+    public CommentPageResponse getCommentsByPostId(String postId, String cursor, int size, boolean expandAuthor) {
+        return loadPage(Criteria.where("postId").is(postId).and("parentId").is(null), cursor, size, expandAuthor);
+    }
+    
+    /** Replies to a top-level comment, oldest first, paged like the comments themselves */
+    public CommentPageResponse getReplies(String commentId, String cursor, int size, boolean expandAuthor) {
+        Comment parent = commentRepository.findByIdAndStatus(commentId, EntityStatus.ACTIVE)
+                .orElseThrow(() -> new AppException(ErrorCode.COMMENT_NOT_FOUND));
+        return loadPage(Criteria.where("postId").is(parent.getPostId()).and("parentId").is(parent.getId()), cursor, size, expandAuthor);
+    }
+    
+    private CommentPageResponse loadPage(Criteria scope, String cursor, int size, boolean expandAuthor) {
+        int pageSize = size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        Query query = Query.query(scope.and("status").is(EntityStatus.ACTIVE));
+        
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            if (!ObjectId.isValid(position.id())) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdAt").gt(position.timestamp()),
+                    Criteria.where("createdAt").is(position.timestamp()).and("_id").gt(new ObjectId(position.id()))
+            ));
+        }
+        
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt", "_id")).limit(pageSize + 1);
+        
+        List<Comment> comments = mongoTemplate.find(query, Comment.class);
+        boolean hasMore = comments.size() > pageSize;
+        List<Comment> page = hasMore ? comments.subList(0, pageSize) : comments;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Comment last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        List<CommentResponse> responses = commentMapper.toResponseList(page);
+        if (expandAuthor) {
+            Map<Long, AuthorResponse> authors = authorCache.getAll(
+                    responses.stream().map(comment -> comment.getUserId().longValue()).toList());
+            responses.forEach(comment -> comment.setAuthor(authors.get(comment.getUserId().longValue())));
+        }
+        
+        return CommentPageResponse.builder()
+                .comments(responses)
+                .nextCursor(nextCursor)
+                .build();
     }
     
     public CommentResponse getCommentById(String id) {
@@ -47,58 +106,71 @@ public class CommentService {
         Long currentUserId = com.example.demo.util.SecurityUtils.getCurrentUserId();
         
         Comment comment = commentMapper.toDocument(request);
+        comment.setParentId(resolveThreadRoot(request));
         comment.setUserId(currentUserId.intValue());
         comment.setCreatedAt(Instant.now());
+        comment.setRepliesCount(0);
         comment.setStatus(EntityStatus.ACTIVE);
         
         Comment savedComment = commentRepository.save(comment);
         
-        incrementPostCommentCount(request.getPostId());
+        commentCountBuffer.adjustComments(savedComment.getPostId(), 1);
+        if (savedComment.getParentId() != null) {
+            commentCountBuffer.adjustReplies(savedComment.getParentId(), 1);
+        }
         
         return commentMapper.toResponse(savedComment);
     }
     
-    private void incrementPostCommentCount(String postId) {
-        Query query = new Query(Criteria.where("_id").is(postId));
-        Update update = new Update().inc("commentsCount", 1);
-        mongoTemplate.updateFirst(query, update, Post.class);
+    /** Threads are one level deep: a reply to a reply joins its top-level comment */
+    private String resolveThreadRoot(CreateCommentRequest request) {
+        if (request.getParentId() == null) {
+            return null;
+        }
+        Comment parent = commentRepository.findByIdAndStatus(request.getParentId(), EntityStatus.ACTIVE)
+                .filter(c -> c.getPostId().equals(request.getPostId()))
+                .orElseThrow(() -> new AppException(ErrorCode.COMMENT_NOT_FOUND));
+        return parent.getParentId() != null ? parent.getParentId() : parent.getId();
     }
     
+    /**
+     * Sets only the content, so a repliesCount moved by a buffer flush since the comment
+     * was read is not written back over.
+     */
     public CommentResponse updateComment(String id, UpdateCommentRequest request) {
-        Comment comment = commentRepository.findByIdAndStatus(id, EntityStatus.ACTIVE)
-                .orElseThrow(() -> new AppException(ErrorCode.COMMENT_NOT_FOUND));
-        
-        commentMapper.updateDocumentFromRequest(request, comment);
-        
-        Comment savedComment = commentRepository.save(comment);
+        Comment savedComment = mongoTemplate.findAndModify(
+                activeComment(id),
+                Update.update("content", request.getContent()),
+                FindAndModifyOptions.options().returnNew(true),
+                Comment.class);
+        if (savedComment == null) {
+            throw new AppException(ErrorCode.COMMENT_NOT_FOUND);
+        }
         return commentMapper.toResponse(savedComment);
     }
     
+    /**
+     * Sets only status and deletedAt. Matching on the active status also means a comment
+     * deleted twice concurrently moves the counters once.
+     */
     public void deleteComment(String id) {
-        Comment comment = commentRepository.findByIdAndStatus(id, EntityStatus.ACTIVE)
-                .orElseThrow(() -> new AppException(ErrorCode.COMMENT_NOT_FOUND));
+        Comment comment = mongoTemplate.findAndModify(
+                activeComment(id),
+                new Update()
+                        .set("status", EntityStatus.DELETED)
+                        .set("deletedAt", Instant.now()),
+                Comment.class);
+        if (comment == null) {
+            throw new AppException(ErrorCode.COMMENT_NOT_FOUND);
+        }
         
-        comment.setStatus(EntityStatus.DELETED);
-        comment.setDeletedAt(Instant.now());
-        commentRepository.save(comment);
-        decrementPostCommentCount(comment.getPostId());
-    }
-    
-    private void decrementPostCommentCount(String postId) {
-        Query query = new Query(Criteria.where("_id").is(postId)
-                .and("commentsCount").gt(0));
-        Update update = new Update().inc("commentsCount", -1);
-        mongoTemplate.updateFirst(query, update, Post.class);
+        commentCountBuffer.adjustComments(comment.getPostId(), -1);
+        if (comment.getParentId() != null) {
+            commentCountBuffer.adjustReplies(comment.getParentId(), -1);
+        }
     }
     
-    @Scheduled(cron = "0 0 2 * * ?")
-    public void cleanupDeletedComments() {
-        Instant sevenDaysAgo = Instant.now().minus(7, ChronoUnit.DAYS);
-        List<Comment> commentsToDelete = commentRepository.findByStatusAndDeletedAtBefore(EntityStatus.DELETED, sevenDaysAgo);
-        
-        if (!commentsToDelete.isEmpty()) {
-            commentRepository.deleteAll(commentsToDelete);
-            log.info("Cleaned up {} deleted comments older than 7 days", commentsToDelete.size());
-        }
+    private Query activeComment(String id) {
+        return Query.query(Criteria.where("_id").is(id).and("status").is(EntityStatus.ACTIVE));
     }
 }
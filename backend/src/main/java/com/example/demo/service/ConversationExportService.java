@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Conversation;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.repository.mongo.ConversationRepository;
+import com.example.demo.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Compliance export of a conversation's history as NDJSON, one raw message document
+ * per line in (sentAt, _id) order.
+ *
+ * <p>Documents are streamed from a server-side cursor straight into the caller's
+ * output stream, so memory use does not depend on conversation size. Every line
+ * carries a {@code _cursor}; passing the last one received as {@code after} resumes an
+ * interrupted export without duplicates.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConversationExportService {
+
+    private static final int CURSOR_BATCH_SIZE = 1000;
+    private static final int FLUSH_EVERY = 1000;
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.RELAXED)
+            .build();
+
+    private final MongoTemplate mongoTemplate;
+    private final ConversationRepository conversationRepository;
+
+    /**
+     * Validates membership and the resume cursor before the response is committed, so
+     * failures still surface as a regular error response.
+     */
+    public void checkAccess(String conversationId, Long userId, String after) {
+        if (after != null && !after.isBlank() && !ObjectId.isValid(KeysetCursor.decode(after).id())) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+
+        Conversation conversation = conversationRepository
+                .findByIdAndStatus(conversationId, EntityStatus.ACTIVE)
+                .orElseThrow(() -> new AppException(ErrorCode.CONVERSATION_NOT_FOUND));
+
+        if (!conversation.getParticipantIds().contains(userId)) {
+            throw new AppException(ErrorCode.USER_NOT_IN_CONVERSATION);
+        }
+    }
+
+    /**
+     * Writes the export and returns the number of messages written. Callers must run
+     * {@link #checkAccess} first.
+     */
+    public long export(String conversationId, String after, boolean includeDeleted, OutputStream out) throws IOException {
+        Criteria criteria = Criteria.where("conversationId").is(conversationId);
+        if (!includeDeleted) {
+            criteria = criteria.and("status").is(EntityStatus.ACTIVE.name());
+        }
+
+        Query query = Query.query(criteria);
+        if (after != null && !after.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(after);
+            Date sentAt = Date.from(position.timestamp());
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("sentAt").gt(sentAt),
+                    Criteria.where("sentAt").is(sentAt).and("_id").gt(new ObjectId(position.id()))
+            ));
+        }
+
+        query.fields().exclude("searchText");
+        query.with(Sort.by(Sort.Direction.ASC, "sentAt", "_id"));
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+
+        long written = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, "messages")) {
+            Iterator<Document> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Document message = iterator.next();
+                Date sentAt = message.getDate("sentAt");
+                if (sentAt != null) {
+                    message.append("_cursor",
+                            new KeysetCursor(sentAt.toInstant(), message.getObjectId("_id").toHexString()).encode());
+                }
+
+                writer.write(message.toJson(JSON_SETTINGS));
+                writer.write('\n');
+
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        log.info("Exported {} messages from conversation {}", written, conversationId);
+        return written;
+    }
+}
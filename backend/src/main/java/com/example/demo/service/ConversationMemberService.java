@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.document.ConversationMember;
+import com.example.demo.document.Message;
+import com.example.demo.enums.EntityStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read state for large groups. Messages of a large group carry no statusList; a
+ * member's position is one {@link ConversationMember} row and unread counts are
+ * derived from it with a capped count over the (conversationId, sentAt) index.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationMemberService {
+
+    /** Clients render anything above this as "999+" */
+    static final int UNREAD_COUNT_CAP = 999;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Moves the member's read position forward to {@code readAt}; $max keeps a late,
+     * older write from moving it back.
+     */
+    public void markRead(String conversationId, Long userId, Instant readAt) {
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(ConversationMember.idOf(conversationId, userId))),
+                new Update()
+                        .setOnInsert("conversationId", conversationId)
+                        .setOnInsert("userId", userId)
+                        .max("lastReadAt", readAt),
+                ConversationMember.class);
+    }
+
+    /**
+     * The member's read positions that moved after {@code since}, by conversation id, from
+     * the (userId, lastReadAt) index (migration 012).
+     */
+    public Map<String, Instant> readPositionsSince(Long userId, Instant since) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("lastReadAt").gt(since));
+        query.fields().include("conversationId", "lastReadAt");
+        return mongoTemplate.find(query, ConversationMember.class).stream()
+                .collect(Collectors.toMap(ConversationMember::getConversationId, ConversationMember::getLastReadAt));
+    }
+
+    public Instant lastReadAt(String conversationId, Long userId) {
+        ConversationMember member = mongoTemplate.findById(
+                ConversationMember.idOf(conversationId, userId), ConversationMember.class);
+        return member != null ? member.getLastReadAt() : null;
+    }
+
+    public int unreadCount(String conversationId, Long userId) {
+        Instant lastReadAt = lastReadAt(conversationId, userId);
+
+        Criteria criteria = Criteria.where("conversationId").is(conversationId)
+                .and("status").is(EntityStatus.ACTIVE)
+                .and("senderId").ne(userId);
+        if (lastReadAt != null) {
+            criteria = criteria.and("sentAt").gt(lastReadAt);
+        }
+
+        return (int) mongoTemplate.count(Query.query(criteria).limit(UNREAD_COUNT_CAP), Message.class);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Net counter deltas per document, summed in memory and written as one unordered bulk
+ * update per {@link #flush}. Backs the write-behind counters ({@link PostLikeCounter},
+ * {@link CommentCountBuffer}); their owners decide when to flush.
+ *
+ * <p>Increments are a plain $inc. Decrements are a pipeline update that sets
+ * {@code max(0, field + delta)}, so a counter that is already short (a node died with
+ * buffered increments) stops at zero instead of going negative, while the rest of the
+ * delta still applies.
+ *
+ * <p>When the bulk write reports per-operation errors, only the deltas of the failed
+ * operations are merged back for the next flush; the others were applied. Any other
+ * failure (a timeout, a lost connection, a write concern error) leaves it unknown what
+ * was applied, and the batch is dropped: a counter may end up short, never
+ * double-counted.
+ */
+@Slf4j
+class CounterDeltaBuffer {
+
+    private final MongoTemplate mongoTemplate;
+    private final Class<?> type;
+    private final String field;
+
+    /** Mutated only through merge(); flush() takes ownership via remove() */
+    private final ConcurrentHashMap<String, Integer> deltas = new ConcurrentHashMap<>();
+
+    CounterDeltaBuffer(MongoTemplate mongoTemplate, Class<?> type, String field) {
+        this.mongoTemplate = mongoTemplate;
+        this.type = type;
+        this.field = field;
+    }
+
+    void add(String id, int delta) {
+        deltas.merge(id, delta, Integer::sum);
+    }
+
+    void flush() {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> batch = new HashMap<>();
+        for (String id : new ArrayList<>(deltas.keySet())) {
+            Integer delta = deltas.remove(id);
+            if (delta != null && delta != 0) {
+                batch.put(id, delta);
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Bulk error indexes refer to this order
+        List<Map.Entry<String, Integer>> operations = new ArrayList<>(batch.entrySet());
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        for (Map.Entry<String, Integer> operation : operations) {
+            Query query = new Query(Criteria.where("_id").is(operation.getKey()));
+            if (operation.getValue() > 0) {
+                bulkOps.updateOne(query, new Update().inc(field, operation.getValue()));
+            } else {
+                bulkOps.updateOne(query, decrementToZero(operation.getValue()));
+            }
+        }
+
+        try {
+            bulkOps.execute();
+            log.debug("Flushed {} {}.{} deltas", batch.size(), type.getSimpleName(), field);
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                Map.Entry<String, Integer> failed = operations.get(error.getIndex());
+                deltas.merge(failed.getKey(), failed.getValue(), Integer::sum);
+            }
+            log.error("Failed to flush {} of {} {}.{} deltas, will retry them: {}",
+                    e.getErrors().size(), batch.size(), type.getSimpleName(), field, e.getMessage());
+        } catch (Exception e) {
+            log.error("Dropped {} {}.{} deltas after an ambiguous flush failure: {}",
+                    batch.size(), type.getSimpleName(), field, e.getMessage());
+        }
+    }
+
+    int pending() {
+        return deltas.size();
+    }
+
+    private AggregationUpdate decrementToZero(int delta) {
+        AggregationExpression clamped = context -> new Document("$max", List.of(0,
+                new Document("$add", List.of(new Document("$ifNull", List.of("$" + field, 0)), delta))));
+        return AggregationUpdate.update().set(field).toValue(clamped);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Conversation;
+import com.example.demo.document.Message;
+import com.example.demo.dto.request.DeliveryAckRequest;
+import com.example.demo.dto.response.MessageReceiptEvent;
+import com.example.demo.enums.DeliveryStatus;
+import com.example.demo.enums.EntityStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces client delivery acks (SENT -> DELIVERED) per (conversation, user) and
+ * flushes them on a short fixed delay as one unordered bulkWrite. Each flush pushes
+ * one receipt frame per conversation, so a message landing in a large group costs
+ * one write round trip and one broadcast per window rather than one per member.
+ * Acks from non-participants are dropped at flush time, with one conversation lookup
+ * per window for all of them rather than one per ack, and a receipt only lists the
+ * messages that actually moved from SENT to DELIVERED for that user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryReceiptService {
+
+    static final int MAX_IDS_PER_ACK = 200;
+
+    private final MongoTemplate mongoTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageTailCache messageTailCache;
+
+    private final ConcurrentHashMap<AckKey, Set<String>> pendingAcks = new ConcurrentHashMap<>();
+
+    record AckKey(String conversationId, Long userId) {
+    }
+
+    public void acknowledge(Long userId, DeliveryAckRequest request) {
+        if (request.getConversationId() == null || request.getMessageIds() == null
+                || request.getMessageIds().isEmpty()) {
+            return;
+        }
+
+        List<String> messageIds = request.getMessageIds().size() > MAX_IDS_PER_ACK
+                ? request.getMessageIds().subList(0, MAX_IDS_PER_ACK)
+                : request.getMessageIds();
+
+        // Mutated only inside compute(); flush() takes ownership via remove()
+        pendingAcks.compute(new AckKey(request.getConversationId(), userId), (key, ids) -> {
+            Set<String> pending = ids != null ? ids : new LinkedHashSet<>();
+            pending.addAll(messageIds);
+            return pending;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${chat.receipts.flush-interval:250}")
+    public void flush() {
+        if (pendingAcks.isEmpty()) {
+            return;
+        }
+
+        Map<AckKey, Set<String>> batch = new HashMap<>();
+        for (AckKey key : new ArrayList<>(pendingAcks.keySet())) {
+            Set<String> ids = pendingAcks.remove(key);
+            if (ids != null && !ids.isEmpty()) {
+                batch.put(key, ids);
+            }
+        }
+
+        dropNonParticipants(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Only ids still SENT for that user are written and announced; anything else
+        // (already delivered or read, another conversation's id, deleted) is dropped
+        Map<AckKey, List<String>> deliverable = findDeliverable(batch);
+        if (deliverable.isEmpty()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class);
+
+        deliverable.forEach((key, ids) -> {
+            Query query = new Query(Criteria.where("_id").in(ids)
+                    .and("conversationId").is(key.conversationId())
+                    .and("status").is(EntityStatus.ACTIVE));
+            Update update = new Update()
+                    .set("statusList.$[s].status", DeliveryStatus.DELIVERED.name())
+                    .set("statusList.$[s].timestamp", now)
+                    .filterArray(Criteria.where("s.userId").is(key.userId())
+                            .and("s.status").is(DeliveryStatus.SENT.name()));
+            bulkOps.updateMulti(query, update);
+        });
+
+        int modified;
+        try {
+            modified = bulkOps.execute().getModifiedCount();
+            log.debug("Flushed {} delivery ack groups, {} messages updated", deliverable.size(), modified);
+        } catch (Exception e) {
+            log.error("Failed to flush {} delivery ack groups: {}", deliverable.size(), e.getMessage());
+            return;
+        }
+        if (modified == 0) {
+            return;
+        }
+
+        Map<String, List<MessageReceiptEvent>> receiptsByConversation = new HashMap<>();
+        deliverable.forEach((key, ids) -> receiptsByConversation
+                .computeIfAbsent(key.conversationId(), k -> new ArrayList<>())
+                .add(MessageReceiptEvent.builder()
+                        .conversationId(key.conversationId())
+                        .userId(key.userId())
+                        .status(DeliveryStatus.DELIVERED)
+                        .messageIds(ids)
+                        .messageCount((long) ids.size())
+                        .timestamp(now)
+                        .build()));
+
+        receiptsByConversation.forEach((conversationId, receipts) -> {
+            messagingTemplate.convertAndSend("/topic/receipts." + conversationId, receipts);
+            receipts.forEach(messageTailCache::publishReceipt);
+        });
+    }
+
+    /** One read of the window's active conversations; acks from anyone not in them are dropped */
+    private void dropNonParticipants(Map<AckKey, Set<String>> batch) {
+        Set<String> conversationIds = batch.keySet().stream().map(AckKey::conversationId).collect(Collectors.toSet());
+        Query query = Query.query(Criteria.where("_id").in(conversationIds).and("status").is(EntityStatus.ACTIVE));
+        query.fields().include("_id", "participantIds");
+
+        Map<String, Set<Long>> participants = new HashMap<>();
+        for (Conversation conversation : mongoTemplate.find(query, Conversation.class)) {
+            participants.put(conversation.getId(), new HashSet<>(conversation.getParticipantIds()));
+        }
+
+        batch.keySet().removeIf(key -> {
+            boolean participant = participants.getOrDefault(key.conversationId(), Set.of()).contains(key.userId());
+            if (!participant) {
+                log.debug("Ignoring delivery ack from non-participant {} in {}", key.userId(), key.conversationId());
+            }
+            return !participant;
+        });
+    }
+
+    /** One read for the whole window: which acked ids are still SENT for the acking user */
+    private Map<AckKey, List<String>> findDeliverable(Map<AckKey, Set<String>> batch) {
+        List<Criteria> groups = batch.entrySet().stream()
+                .map(entry -> Criteria.where("conversationId").is(entry.getKey().conversationId())
+                        .and("_id").in(entry.getValue()))
+                .toList();
+        Query query = Query.query(Criteria.where("status").is(EntityStatus.ACTIVE).orOperator(groups));
+        query.fields().include("_id", "conversationId", "statusList");
+
+        Map<String, List<Message>> byConversation = new HashMap<>();
+        for (Message message : mongoTemplate.find(query, Message.class)) {
+            byConversation.computeIfAbsent(message.getConversationId(), k -> new ArrayList<>()).add(message);
+        }
+
+        Map<AckKey, List<String>> deliverable = new HashMap<>();
+        batch.forEach((key, ids) -> {
+            List<String> sent = byConversation.getOrDefault(key.conversationId(), List.of()).stream()
+                    .filter(message -> ids.contains(message.getId()))
+                    .filter(message -> message.getStatusList() != null && message.getStatusList().stream()
+                            .anyMatch(status -> key.userId().equals(status.getUserId())
+                                    && status.getStatus() == DeliveryStatus.SENT))
+                    .map(Message::getId)
+                    .toList();
+            if (!sent.isEmpty()) {
+                deliverable.put(key, sent);
+            }
+        });
+        return deliverable;
+    }
+
+    int pendingGroupCount() {
+        return pendingAcks.size();
+    }
+}
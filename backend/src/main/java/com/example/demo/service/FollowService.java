@@ -0,0 +1,51 @@
+package com.example.demo.service;
+
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.repository.jpa.UserFollowRepository;
+import com.example.demo.repository.jpa.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Follow graph writes. Both operations are idempotent: the edge insert/delete reports
+ * whether anything changed, and only then is the denormalized followers_count moved
+ * and the follower's timeline adjusted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FollowService {
+
+    private final UserFollowRepository userFollowRepository;
+    private final UserRepository userRepository;
+    private final TimelineService timelineService;
+
+    @Transactional
+    public void follow(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new AppException(ErrorCode.CANNOT_FOLLOW_SELF);
+        }
+        userRepository.findByIdAndStatus(followeeId, EntityStatus.ACTIVE)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+
+        if (userFollowRepository.insertIfAbsent(followerId, followeeId, Instant.now()) == 1) {
+            userRepository.adjustFollowersCount(followeeId, 1);
+            timelineService.backfill(followerId, followeeId);
+        }
+    }
+
+    @Transactional
+    public void unfollow(Long followerId, Long followeeId) {
+        if (userFollowRepository.deleteEdge(followerId, followeeId) == 1) {
+            int followers = userRepository.adjustFollowersCount(followeeId, -1);
+            timelineService.removeAuthor(followerId, followeeId);
+            timelineService.followersDecreased(followeeId, followers);
+        }
+    }
+}
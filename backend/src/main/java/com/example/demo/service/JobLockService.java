@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ClusterNode;
+import com.example.demo.document.JobLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Leases on {@link JobLock} documents so a scheduled job runs on one node at a time.
+ * Acquiring is a single upsert that only matches an expired lease or one this node
+ * already holds; when another node holds it, the upsert collides on _id and fails.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobLockService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterNode clusterNode;
+
+    /** Acquires or extends the lease; false when another node holds it */
+    public boolean tryAcquire(String job, Duration leaseTime) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(job).orOperator(
+                Criteria.where("lockedUntil").lt(now),
+                Criteria.where("owner").is(clusterNode.getNodeId())));
+        try {
+            mongoTemplate.findAndModify(
+                    query,
+                    new Update().set("owner", clusterNode.getNodeId()).set("lockedUntil", now.plus(leaseTime)),
+                    FindAndModifyOptions.options().upsert(true),
+                    JobLock.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.debug("Job {} is locked by another node", job);
+            return false;
+        }
+    }
+
+    public void release(String job) {
+        mongoTemplate.remove(
+                Query.query(Criteria.where("_id").is(job).and("owner").is(clusterNode.getNodeId())),
+                JobLock.class);
+    }
+}
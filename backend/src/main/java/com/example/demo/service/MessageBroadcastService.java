@@ -14,14 +14,19 @@ import com.example.demo.repository.jpa.ProfileRepository;
 import com.example.demo.repository.jpa.UserRepository;
 import com.example.demo.repository.mongo.ConversationRepository;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +38,12 @@ public class MessageBroadcastService {
     private final UserRepository userRepository;
     private final ProfileRepository profileRepository;
     private final ChatService chatService;
+    private final UserChannelService userChannelService;
+
+    private final ExecutorService fanoutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${chat.group.fanout-shard-size:100}")
+    private int fanoutShardSize;
 
     public void broadcastMessage(ChatMessage chatMessage) {
         try {
@@ -84,29 +95,23 @@ public class MessageBroadcastService {
             }
             
             List<Long> participantIds = conversation.getParticipantIds();
-            log.info("Found {} participants for conversation {}: {}", 
-                participantIds.size(), chatMessage.getConversationId(), participantIds);
+            log.info("Found {} participants for conversation {}", 
+                participantIds.size(), chatMessage.getConversationId());
             
             // Create conversation update with MessageSummary (NO attachment data)
             ConversationUpdateMessage updateMessage = createConversationUpdate(chatMessage, conversation);
             
-            // Broadcast to each participant's user-specific queue using RabbitMQ STOMP format
-            int successfulBroadcasts = 0;
-            for (Long participantId : participantIds) {
-                try {
-                    // Use RabbitMQ STOMP compliant destination format
-                    String userQueueDestination = "/queue/messages." + participantId;
-                    messagingTemplate.convertAndSend(userQueueDestination, updateMessage);
-                    log.debug("Broadcasted conversation update to user-specific queue: {}", userQueueDestination);
-                    successfulBroadcasts++;
-                    
-                } catch (Exception e) {
-                    log.error("Failed to broadcast to user-specific queue for participant {}: {}", participantId, e.getMessage());
-                }
+            if (conversation.isLarge()) {
+                // One publish; the broker fans it out to the members' own topic subscriptions
+                messagingTemplate.convertAndSend("/topic/conversation-updates." + conversation.getId(), updateMessage);
+                log.info("Published conversation update for large group {} on its update topic", conversation.getId());
+                return;
             }
             
-            log.info("Completed user-specific queue broadcasting for conversation {}: {}/{} successful", 
-                chatMessage.getConversationId(), successfulBroadcasts, participantIds.size());
+            fanOutToUsers(participantIds, updateMessage);
+            
+            log.info("Completed user channel broadcasting for conversation {} to {} participants", 
+                chatMessage.getConversationId(), participantIds.size());
             
         } catch (Exception e) {
             log.error("Failed to broadcast to user-specific queues for conversation {}: {}", 
@@ -114,6 +119,32 @@ public class MessageBroadcastService {
         }
     }
     
+    /**
+     * Routed user-channel send, serialized once with one broker hop per node. Groups
+     * above the shard size are split so directory lookups and node publishes for each
+     * shard run in parallel instead of one long serial pass.
+     */
+    private void fanOutToUsers(List<Long> participantIds, ConversationUpdateMessage updateMessage) {
+        if (participantIds.size() <= fanoutShardSize) {
+            userChannelService.sendToUsers(participantIds, UserChannelService.MESSAGES, updateMessage);
+            return;
+        }
+        
+        List<CompletableFuture<Void>> shards = new ArrayList<>();
+        for (int from = 0; from < participantIds.size(); from += fanoutShardSize) {
+            List<Long> shard = participantIds.subList(from, Math.min(from + fanoutShardSize, participantIds.size()));
+            shards.add(CompletableFuture.runAsync(
+                    () -> userChannelService.sendToUsers(shard, UserChannelService.MESSAGES, updateMessage),
+                    fanoutExecutor));
+        }
+        CompletableFuture.allOf(shards.toArray(CompletableFuture[]::new)).join();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        fanoutExecutor.shutdown();
+    }
+    
     private ConversationUpdateMessage createConversationUpdate(ChatMessage chatMessage, Conversation conversation) {
         try {
             log.debug("Creating conversation update for conversation {} with message type {}", 
@@ -122,7 +153,10 @@ public class MessageBroadcastService {
             // Transform ChatMessage to MessageSummary (NO attachment data)
             MessageSummary lastMessageSummary = transformToMessageSummary(chatMessage);
             
-            List<ParticipantResponse> participants = getParticipantDetails(conversation.getParticipantIds());
+            // Large groups: clients load members on demand rather than with every message
+            List<ParticipantResponse> participants = conversation.isLarge()
+                    ? null
+                    : getParticipantDetails(conversation.getParticipantIds());
             
             // Calculate unread count (simplified - will be 1 for new message)
             Integer unreadCount = 1;
@@ -138,7 +172,7 @@ public class MessageBroadcastService {
                     .build();
             
             log.debug("Successfully created conversation update with {} participants", 
-                participants.size());
+                participants != null ? participants.size() : 0);
             
             return updateMessage;
                     
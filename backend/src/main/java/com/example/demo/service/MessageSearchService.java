@@ -0,0 +1,219 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Conversation;
+import com.example.demo.document.Message;
+import com.example.demo.dto.response.MessageResponse;
+import com.example.demo.dto.response.MessageSearchResponse;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.repository.mongo.ConversationRepository;
+import com.example.demo.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over chat history backed by the messages text index (migration 008).
+ *
+ * <p>The index covers {@code searchText}, a normalized copy of the content written by
+ * {@link ChatService#processMessage}; content itself is stored HTML-escaped by the
+ * sanitizer and would tokenize badly.
+ *
+ * <p>Search is scoped to one conversation. The text index is prefixed with
+ * conversationId, so a query only walks that conversation's postings,
+ * and MongoDB requires an equality match on the prefix. A text index can never provide
+ * the (sentAt, _id) order, so each page is still a top-k sort in memory over the
+ * conversation's matches: memory is bounded by the page size, but a very common term
+ * in a very long conversation still costs a pass over all its matches. Pages are
+ * keyset-paginated by (sentAt, _id), newest first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageSearchService {
+
+    private static final int MIN_QUERY_LENGTH = 2;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int REINDEX_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final ConversationRepository conversationRepository;
+    private final ChatService chatService;
+
+    @Value("${chat.search.reindex-on-startup:false}")
+    private boolean reindexOnStartup;
+
+    public MessageSearchResponse search(Long userId, String queryText, String conversationId, String cursor, int size) {
+        String terms = searchTextOf(queryText);
+        if (terms == null || terms.length() < MIN_QUERY_LENGTH || terms.length() > MAX_QUERY_LENGTH) {
+            throw new AppException(ErrorCode.INVALID_SEARCH_QUERY);
+        }
+        if (conversationId == null || conversationId.isBlank()) {
+            throw new AppException(ErrorCode.SEARCH_CONVERSATION_REQUIRED);
+        }
+
+        requireParticipant(userId, conversationId);
+
+        int pageSize = size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+
+        Query query = Query.query(Criteria.where("conversationId").is(conversationId))
+                .addCriteria(TextCriteria.forLanguage("none").matching(terms))
+                .addCriteria(Criteria.where("status").is(EntityStatus.ACTIVE));
+
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            if (!ObjectId.isValid(position.id())) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("sentAt").lt(position.timestamp()),
+                    Criteria.where("sentAt").is(position.timestamp()).and("_id").lt(new ObjectId(position.id()))
+            ));
+        }
+
+        query.with(Sort.by(Sort.Direction.DESC, "sentAt", "_id")).limit(pageSize + 1);
+
+        List<Message> matches = mongoTemplate.find(query, Message.class);
+        boolean hasMore = matches.size() > pageSize;
+        List<Message> page = hasMore ? matches.subList(0, pageSize) : matches;
+
+        List<MessageResponse> messages = page.stream()
+                .map(chatService::enrichMessageResponse)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Message last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getSentAt(), last.getId()).encode();
+        }
+
+        return MessageSearchResponse.builder()
+                .messages(messages)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Rebuilds searchText from content by streaming active messages through a cursor and
+     * writing in unordered bulk batches. With {@code full == false} only messages that
+     * were never indexed are touched, which makes it safe to re-run after a partial pass;
+     * media-only messages are marked with an empty searchText so they count as indexed.
+     */
+    public long reindex(boolean full) {
+        Criteria criteria = Criteria.where("status").is(EntityStatus.ACTIVE);
+        if (!full) {
+            criteria = criteria.and("searchText").exists(false);
+        }
+
+        Query query = Query.query(criteria);
+        query.fields().include("content");
+        query.cursorBatchSize(REINDEX_BATCH_SIZE);
+
+        long updated = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class);
+
+        try (Stream<Message> stream = mongoTemplate.stream(query, Message.class)) {
+            Iterator<Message> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Message message = iterator.next();
+                Update update = Update.update("searchText", indexedTextOf(message.getContent()));
+
+                bulk.updateOne(Query.query(Criteria.where("_id").is(new ObjectId(message.getId()))), update);
+
+                if (++pending == REINDEX_BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class);
+                    pending = 0;
+                }
+            }
+        }
+
+        if (pending > 0) {
+            updated += bulk.execute().getModifiedCount();
+        }
+
+        log.info("Message search reindex ({}) updated {} messages", full ? "full" : "incremental", updated);
+        return updated;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartup() {
+        if (!reindexOnStartup) {
+            return;
+        }
+        Thread.ofVirtual().name("message-search-reindex").start(() -> {
+            try {
+                reindex(false);
+            } catch (Exception e) {
+                log.error("Message search reindex failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Undoes the sanitizer's HTML escaping, applies NFKC and lowercases, so that the
+     * stored terms match what users type. Returns null for blank content (media-only
+     * messages); {@link #indexedTextOf} is what gets stored for them.
+     */
+    public static String searchTextOf(String content) {
+        if (content == null || content.isBlank()) {
+            return null;
+        }
+
+        String text = content
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#x27;", "'")
+                .replace("&#x2F;", "/")
+                .replace("&amp;", "&");
+
+        text = Normalizer.normalize(text, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .trim();
+
+        return text.isEmpty() ? null : text;
+    }
+
+    /**
+     * The value stored in searchText: {@link #searchTextOf} of the content, or an empty
+     * string for media-only messages. Empty text adds no terms to the index but marks the
+     * message as indexed, so the incremental reindex does not pick it up on every run.
+     */
+    public static String indexedTextOf(String content) {
+        String text = searchTextOf(content);
+        return text != null ? text : "";
+    }
+
+    private void requireParticipant(Long userId, String conversationId) {
+        Conversation conversation = conversationRepository
+                .findByIdAndStatus(conversationId, EntityStatus.ACTIVE)
+                .orElseThrow(() -> new AppException(ErrorCode.CONVERSATION_NOT_FOUND));
+        if (!conversation.getParticipantIds().contains(userId)) {
+            throw new AppException(ErrorCode.USER_NOT_IN_CONVERSATION);
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.example.demo.service;
+
+import com.example.demo.config.RabbitMQConfig;
+import com.example.demo.dto.internal.MessageTailEvent;
+import com.example.demo.dto.response.MediaAttachmentResponse;
+import com.example.demo.dto.response.MessageReceiptEvent;
+import com.example.demo.dto.response.MessageResponse;
+import com.example.demo.dto.response.MessageStatusResponse;
+import com.example.demo.enums.DeliveryStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Node-local cache of the newest messages of recently read conversations, so opening a
+ * busy room does not query Mongo or re-resolve sender names.
+ *
+ * <p>Each tail holds up to {@code size} messages, oldest first, and is a contiguous
+ * suffix of the conversation's active history. It is loaded once by the first page-0
+ * read and then kept current by {@link MessageTailEvent}s that every node receives over
+ * a fanout exchange, so a message processed on one node shows up in every node's tail.
+ * Events for conversations that are not resident are ignored. While a tail is loading,
+ * events are queued and replayed on top of the loaded page, which closes the window
+ * between the Mongo read and the tail going live.
+ *
+ * <p>Memory is bounded by an estimated byte budget across all tails; when it is
+ * exceeded the least recently read conversations are dropped. Cached responses are
+ * never mutated: receipts replace the affected messages with updated copies.
+ */
+@Service
+@Slf4j
+public class MessageTailCache {
+
+    private static final Comparator<MessageResponse> ORDER = Comparator
+            .comparing(MessageResponse::getSentAt)
+            .thenComparing(MessageResponse::getId);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final boolean enabled;
+    @Getter
+    private final int tailSize;
+    private final long maxBytes;
+
+    private final Map<String, Tail> tails = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public MessageTailCache(
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${chat.message.tail-cache.enabled:true}") boolean enabled,
+            @Value("${chat.message.tail-cache.size:50}") int tailSize,
+            @Value("${chat.message.tail-cache.max-bytes:67108864}") long maxBytes) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.enabled = enabled;
+        this.tailSize = tailSize;
+        this.maxBytes = maxBytes;
+        this.hits = meterRegistry.counter("chat.message.tail-cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("chat.message.tail-cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("chat.message.tail-cache.evictions");
+        meterRegistry.gauge("chat.message.tail-cache.bytes", totalBytes);
+        meterRegistry.gaugeMapSize("chat.message.tail-cache.conversations", List.of(), tails);
+    }
+
+    /**
+     * The newest {@code size} messages, oldest first, or empty when the tail is not
+     * resident or too short to answer. The caller checks the conversation and membership.
+     */
+    public Optional<List<MessageResponse>> latest(String conversationId, int size) {
+        Tail tail = readableTail(conversationId);
+        if (tail == null) {
+            return miss();
+        }
+        synchronized (tail) {
+            if (size > tail.messages.size() && !tail.complete) {
+                return miss();
+            }
+            int from = Math.max(0, tail.messages.size() - size);
+            hits.increment();
+            return Optional.of(new ArrayList<>(tail.messages.subList(from, tail.messages.size())));
+        }
+    }
+
+    /**
+     * Up to {@code size} messages newer than {@code afterId}, oldest first, or empty when
+     * the anchor is not in the resident tail. The caller checks the conversation and membership.
+     */
+    public Optional<List<MessageResponse>> after(String conversationId, String afterId, int size) {
+        Tail tail = readableTail(conversationId);
+        if (tail == null) {
+            return miss();
+        }
+        synchronized (tail) {
+            int index = indexOf(tail.messages, afterId);
+            if (index < 0) {
+                return miss();
+            }
+            int to = Math.min(tail.messages.size(), index + 1 + size);
+            hits.increment();
+            return Optional.of(new ArrayList<>(tail.messages.subList(index + 1, to)));
+        }
+    }
+
+    /**
+     * Claims the conversation for loading. When present, the caller should read the tail
+     * from Mongo and hand it to {@link #fill}, or to {@link #evict(Reservation)} if that
+     * fails; both act only on the tail this call created.
+     */
+    public Optional<Reservation> reserve(String conversationId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Tail tail = new Tail();
+        if (tails.putIfAbsent(conversationId, tail) != null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Reservation(conversationId, tail));
+    }
+
+    /**
+     * Publishes the loaded tail, replaying events that arrived while it was being read.
+     * {@code complete} means the page holds the whole active history of the conversation.
+     * Ignored when the reserved tail was evicted (and possibly replaced) in the meantime.
+     */
+    public void fill(Reservation reservation, List<MessageResponse> loaded, boolean complete) {
+        Tail tail = reservation.tail;
+        synchronized (tail) {
+            if (tail.ready || tail.evicted) {
+                return;
+            }
+            tail.messages.addAll(loaded);
+            tail.messages.sort(ORDER);
+            tail.complete = complete;
+            trim(tail);
+            for (MessageTailEvent event : tail.pending) {
+                apply(tail, event);
+            }
+            tail.pending = null;
+            tail.ready = true;
+            tail.lastAccess = System.nanoTime();
+            resize(tail);
+        }
+        enforceBudget();
+    }
+
+    public void evict(String conversationId) {
+        Tail tail = tails.remove(conversationId);
+        if (tail != null) {
+            markEvicted(tail);
+        }
+    }
+
+    /** Drops the reserved tail, unless it has already been evicted and replaced */
+    public void evict(Reservation reservation) {
+        if (tails.remove(reservation.conversationId, reservation.tail)) {
+            markEvicted(reservation.tail);
+        }
+    }
+
+    private void markEvicted(Tail tail) {
+        synchronized (tail) {
+            tail.evicted = true;
+            totalBytes.addAndGet(-tail.bytes);
+        }
+    }
+
+    public void publishUpsert(MessageResponse message) {
+        publish(MessageTailEvent.builder()
+                .kind(MessageTailEvent.Kind.UPSERT)
+                .conversationId(message.getConversationId())
+                .message(message)
+                .build());
+    }
+
+    public void publishRemove(String conversationId, String messageId) {
+        publish(MessageTailEvent.builder()
+                .kind(MessageTailEvent.Kind.REMOVE)
+                .conversationId(conversationId)
+                .messageId(messageId)
+                .build());
+    }
+
+    public void publishReceipt(MessageReceiptEvent receipt) {
+        publish(MessageTailEvent.builder()
+                .kind(MessageTailEvent.Kind.RECEIPT)
+                .conversationId(receipt.getConversationId())
+                .receipt(receipt)
+                .build());
+    }
+
+    @RabbitListener(queues = "#{@clusterNode.tailCacheQueue()}", containerFactory = RabbitMQConfig.ORDERED_LISTENER_FACTORY)
+    public void onEvent(MessageTailEvent event) {
+        Tail tail = tails.get(event.getConversationId());
+        if (tail == null) {
+            return;
+        }
+        synchronized (tail) {
+            if (tail.evicted) {
+                return;
+            }
+            if (!tail.ready) {
+                tail.pending.add(event);
+                return;
+            }
+            apply(tail, event);
+            resize(tail);
+        }
+        enforceBudget();
+    }
+
+    private void publish(MessageTailEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.TAIL_CACHE_EXCHANGE, "", event);
+        } catch (Exception e) {
+            // Other nodes may now serve a stale tail until it is evicted; at least stop doing so here
+            log.error("Failed to publish tail cache event for conversation {}: {}", event.getConversationId(), e.getMessage());
+            evict(event.getConversationId());
+        }
+    }
+
+    private Tail readableTail(String conversationId) {
+        if (!enabled) {
+            return null;
+        }
+        Tail tail = tails.get(conversationId);
+        if (tail == null || !tail.ready) {
+            return null;
+        }
+        tail.lastAccess = System.nanoTime();
+        return tail;
+    }
+
+    private <T> Optional<T> miss() {
+        misses.increment();
+        return Optional.empty();
+    }
+
+    private void apply(Tail tail, MessageTailEvent event) {
+        switch (event.getKind()) {
+            case UPSERT -> upsert(tail, event.getMessage());
+            case REMOVE -> {
+                int index = indexOf(tail.messages, event.getMessageId());
+                if (index >= 0) {
+                    tail.messages.remove(index);
+                }
+            }
+            case RECEIPT -> applyReceipt(tail, event.getReceipt());
+        }
+    }
+
+    private void upsert(Tail tail, MessageResponse message) {
+        int index = indexOf(tail.messages, message.getId());
+        if (index >= 0) {
+            MessageResponse current = tail.messages.get(index);
+            if (versionOf(current) <= versionOf(message)) {
+                tail.messages.set(index, message);
+            }
+            return;
+        }
+
+        // Older than everything held by a partial tail: not part of the suffix we cache
+        if (!tail.complete && !tail.messages.isEmpty() && ORDER.compare(message, tail.messages.get(0)) < 0) {
+            return;
+        }
+
+        int position = tail.messages.size();
+        while (position > 0 && ORDER.compare(tail.messages.get(position - 1), message) > 0) {
+            position--;
+        }
+        tail.messages.add(position, message);
+        trim(tail);
+    }
+
+    /**
+     * A receipt without ids covers everything sent up to its timestamp (mark-as-read);
+     * messages sent after it are left alone.
+     */
+    private void applyReceipt(Tail tail, MessageReceiptEvent receipt) {
+        Set<String> messageIds = receipt.getMessageIds() != null ? new HashSet<>(receipt.getMessageIds()) : null;
+        for (int i = 0; i < tail.messages.size(); i++) {
+            MessageResponse message = tail.messages.get(i);
+            boolean covered = messageIds != null
+                    ? messageIds.contains(message.getId())
+                    : receipt.getTimestamp() != null && !message.getSentAt().isAfter(receipt.getTimestamp());
+            if (!covered) {
+                continue;
+            }
+            MessageResponse updated = withStatus(message, receipt);
+            if (updated != message) {
+                tail.messages.set(i, updated);
+            }
+        }
+    }
+
+    /**
+     * Copy of {@code message} with the receipt applied, or {@code message} itself when
+     * the receipt does not advance the user's status (READ never goes back to DELIVERED).
+     */
+    private MessageResponse withStatus(MessageResponse message, MessageReceiptEvent receipt) {
+        if (message.getStatusList() == null) {
+            return message;
+        }
+
+        List<MessageStatusResponse> statusList = new ArrayList<>(message.getStatusList().size());
+        boolean changed = false;
+        for (MessageStatusResponse status : message.getStatusList()) {
+            boolean advances = status.getUserId().equals(receipt.getUserId())
+                    && status.getStatus() != DeliveryStatus.READ
+                    && (receipt.getStatus() == DeliveryStatus.READ || status.getStatus() == DeliveryStatus.SENT);
+            if (advances) {
+                MessageStatusResponse copy = new MessageStatusResponse();
+                copy.setUserId(status.getUserId());
+                copy.setStatus(receipt.getStatus());
+                copy.setTimestamp(receipt.getTimestamp());
+                statusList.add(copy);
+                changed = true;
+            } else {
+                statusList.add(status);
+            }
+        }
+        if (!changed) {
+            return message;
+        }
+
+        MessageResponse copy = new MessageResponse();
+        copy.setId(message.getId());
+        copy.setConversationId(message.getConversationId());
+        copy.setSenderId(message.getSenderId());
+        copy.setSenderName(message.getSenderName());
+        copy.setContent(message.getContent());
+        copy.setAttachments(message.getAttachments());
+        copy.setType(message.getType());
+        copy.setSentAt(message.getSentAt());
+        copy.setStatusList(statusList);
+        copy.setStatus(message.getStatus());
+        copy.setEditedAt(message.getEditedAt());
+        copy.setVersion(message.getVersion());
+        return copy;
+    }
+
+    private void trim(Tail tail) {
+        int excess = tail.messages.size() - tailSize;
+        if (excess > 0) {
+            tail.messages.subList(0, excess).clear();
+            tail.complete = false;
+        }
+    }
+
+    private void resize(Tail tail) {
+        long bytes = 0;
+        for (MessageResponse message : tail.messages) {
+            bytes += estimateBytes(message);
+        }
+        totalBytes.addAndGet(bytes - tail.bytes);
+        tail.bytes = bytes;
+    }
+
+    /**
+     * Drops the least recently read tails until the estimate is back under 90% of the
+     * budget. One thread evicts at a time; the others carry on.
+     */
+    private void enforceBudget() {
+        if (totalBytes.get() <= maxBytes || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long target = maxBytes * 9 / 10;
+            List<Map.Entry<String, Tail>> candidates = new ArrayList<>(tails.entrySet());
+            candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            for (Map.Entry<String, Tail> candidate : candidates) {
+                if (totalBytes.get() <= target) {
+                    break;
+                }
+                if (candidate.getValue().ready) {
+                    evict(candidate.getKey());
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static int indexOf(List<MessageResponse> messages, String messageId) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).getId().equals(messageId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long versionOf(MessageResponse message) {
+        return message.getVersion() != null ? message.getVersion() : 0L;
+    }
+
+    /**
+     * Rough retained size of one cached response: fixed overhead for the object, ids,
+     * enums and timestamps, plus two bytes per char of the variable-length strings.
+     */
+    static long estimateBytes(MessageResponse message) {
+        long bytes = 256;
+        bytes += 2L * length(message.getContent()) + 2L * length(message.getSenderName());
+        if (message.getAttachments() != null) {
+            for (MediaAttachmentResponse attachment : message.getAttachments()) {
+                bytes += 192 + 2L * length(attachment.getUrl()) + 2L * length(attachment.getCloudinaryPublicId());
+                if (attachment.getMetadata() != null) {
+                    bytes += 64L * attachment.getMetadata().size();
+                }
+            }
+        }
+        if (message.getStatusList() != null) {
+            bytes += 72L * message.getStatusList().size();
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    int residentConversations() {
+        return tails.size();
+    }
+
+    long estimatedBytes() {
+        return totalBytes.get();
+    }
+
+    /** A claim on loading one conversation's tail, handed out by {@link #reserve} */
+    public static final class Reservation {
+
+        private final String conversationId;
+        private final Tail tail;
+
+        private Reservation(String conversationId, Tail tail) {
+            this.conversationId = conversationId;
+            this.tail = tail;
+        }
+    }
+
+    private static final class Tail {
+
+        private final List<MessageResponse> messages = new ArrayList<>();
+        private List<MessageTailEvent> pending = new ArrayList<>();
+        private boolean complete;
+        private boolean evicted;
+        private long bytes;
+        private volatile boolean ready;
+        private volatile long lastAccess = System.nanoTime();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.PostFeedResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of the first pages of the public feed, shared by all readers.
+ *
+ * <p>Only the head of the feed is cached: the first page, plus pages reached by
+ * following a cached page's nextCursor, up to {@code cached-pages} deep. That keeps the
+ * key space bounded no matter which cursors clients send. Any post write on this node
+ * clears everything; other nodes catch up within the TTL. A generation counter keeps a
+ * page that was read before an invalidation from being stored after it.
+ */
+@Component
+public class PostFeedCache {
+
+    private record Key(String cursor, int size) {
+    }
+
+    private record Entry(PostFeedResponse page, long expiresAt) {
+    }
+
+    private static final int MAX_TRACKED_CURSORS = 1024;
+
+    private final Map<Key, Entry> pages = new ConcurrentHashMap<>();
+    /** Cursor issued by a cached page → depth of the page it leads to */
+    private final Map<String, Integer> cursorDepths = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final long ttlMillis;
+    private final int cachedPages;
+
+    public PostFeedCache(
+            @Value("${posts.feed.cache-ttl:5000}") long ttlMillis,
+            @Value("${posts.feed.cached-pages:3}") int cachedPages) {
+        this.ttlMillis = ttlMillis;
+        this.cachedPages = cachedPages;
+    }
+
+    public PostFeedResponse get(String cursor, int size, Supplier<PostFeedResponse> loader) {
+        Integer depth = cursor == null ? Integer.valueOf(0) : cursorDepths.get(cursor);
+        if (depth == null || depth >= cachedPages || ttlMillis <= 0) {
+            return loader.get();
+        }
+
+        Key key = new Key(cursor, size);
+        long now = System.currentTimeMillis();
+        Entry entry = pages.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.page();
+        }
+
+        long observedGeneration = generation.get();
+        PostFeedResponse page = loader.get();
+
+        synchronized (this) {
+            if (generation.get() == observedGeneration) {
+                if (cursorDepths.size() >= MAX_TRACKED_CURSORS) {
+                    // Posts written on other nodes leave stale cursors behind until the next local write
+                    pages.clear();
+                    cursorDepths.clear();
+                }
+                pages.put(key, new Entry(page, now + ttlMillis));
+                if (page.getNextCursor() != null) {
+                    cursorDepths.put(page.getNextCursor(), depth + 1);
+                }
+            }
+        }
+        return page;
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        pages.clear();
+        cursorDepths.clear();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Post;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies like/unlike deltas to Post.likes.
+ *
+ * <p>A post that gets fewer than {@code hot-threshold} like changes within one flush
+ * interval is updated directly with $inc. Past that, further deltas for the post are
+ * summed in memory and folded into the document once per interval, so a viral post
+ * costs one write per node per interval instead of one per like. The post_likes set
+ * stays authoritative; a node that dies with buffered deltas leaves the counter short
+ * by at most one interval of likes.
+ */
+@Component
+public class PostLikeCounter {
+
+    private final MongoTemplate mongoTemplate;
+    private final int hotThreshold;
+
+    /** Like changes per post seen in the current interval */
+    private final ConcurrentHashMap<String, AtomicInteger> recentChanges = new ConcurrentHashMap<>();
+    /** Net delta per hot post not yet written */
+    private final CounterDeltaBuffer pendingDeltas;
+
+    public PostLikeCounter(
+            MongoTemplate mongoTemplate,
+            @Value("${posts.likes.hot-threshold:20}") int hotThreshold) {
+        this.mongoTemplate = mongoTemplate;
+        this.hotThreshold = hotThreshold;
+        this.pendingDeltas = new CounterDeltaBuffer(mongoTemplate, Post.class, "likes");
+    }
+
+    public void add(String postId, int delta) {
+        int changes = recentChanges.computeIfAbsent(postId, id -> new AtomicInteger()).incrementAndGet();
+        if (changes > hotThreshold) {
+            pendingDeltas.add(postId, delta);
+            return;
+        }
+
+        Criteria criteria = Criteria.where("_id").is(postId);
+        if (delta < 0) {
+            criteria = criteria.and("likes").gt(0);
+        }
+        mongoTemplate.updateFirst(new Query(criteria), new Update().inc("likes", delta), Post.class);
+    }
+
+    /** Also runs on shutdown, so a clean stop loses no buffered likes */
+    @Scheduled(fixedDelayString = "${posts.likes.flush-interval:1000}")
+    @PreDestroy
+    public void flush() {
+        recentChanges.clear();
+        pendingDeltas.flush();
+    }
+
+    int pendingPosts() {
+        return pendingDeltas.pending();
+    }
+}
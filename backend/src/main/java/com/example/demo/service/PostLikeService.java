@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Post;
+import com.example.demo.document.PostLike;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Likes as a per-user set in post_likes. Liking twice or unliking something not liked
+ * changes nothing; Post.likes only moves through {@link PostLikeCounter} when a row is
+ * actually inserted or removed.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostLikeService {
+
+    private final MongoTemplate mongoTemplate;
+    private final PostLikeCounter postLikeCounter;
+
+    public void like(String postId, Long userId) {
+        boolean active = mongoTemplate.exists(
+                Query.query(Criteria.where("_id").is(postId).and("status").is(EntityStatus.ACTIVE)), Post.class);
+        if (!active) {
+            throw new AppException(ErrorCode.POST_NOT_FOUND);
+        }
+
+        UpdateResult result = mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(PostLike.idOf(postId, userId))),
+                new Update()
+                        .setOnInsert("postId", postId)
+                        .setOnInsert("userId", userId)
+                        .setOnInsert("createdAt", Instant.now()),
+                PostLike.class);
+
+        if (result.getUpsertedId() != null) {
+            postLikeCounter.add(postId, 1);
+        }
+    }
+
+    public void unlike(String postId, Long userId) {
+        DeleteResult result = mongoTemplate.remove(
+                Query.query(Criteria.where("_id").is(PostLike.idOf(postId, userId))), PostLike.class);
+
+        if (result.getDeletedCount() > 0) {
+            postLikeCounter.add(postId, -1);
+        }
+    }
+}
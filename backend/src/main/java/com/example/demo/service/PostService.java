@@ -3,21 +3,31 @@ package com.example.demo.service;
 import com.example.demo.document.Post;
 import com.example.demo.dto.request.CreatePostRequest;
 import com.example.demo.dto.request.UpdatePostRequest;
+import com.example.demo.dto.response.AuthorResponse;
+import com.example.demo.dto.response.PostFeedResponse;
 import com.example.demo.dto.response.PostResponse;
 import com.example.demo.enums.EntityStatus;
 import com.example.demo.exception.AppException;
 import com.example.demo.exception.ErrorCode;
 import com.example.demo.mapper.PostMapper;
 import com.example.demo.repository.mongo.PostRepository;
+import com.example.demo.util.KeysetCursor;
 import com.example.demo.util.SlugUtil;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -27,10 +37,70 @@ public class PostService {
     private final PostRepository postRepository;
     private final PostMapper postMapper;
     private final com.example.demo.repository.jpa.UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final PostFeedCache postFeedCache;
+    private final TimelineService timelineService;
+    private final AuthorCache authorCache;
     
-    public List<PostResponse> getAllPosts() {
-        List<Post> posts = postRepository.findByStatusOrderByCreatedAtDesc(EntityStatus.ACTIVE);
-        return postMapper.toResponseList(posts);
+    private static final int DEFAULT_FEED_PAGE_SIZE = 20;
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    
+    /**
+     * Public feed, newest first, as (createdAt, _id) keyset pages over the
+     * idx_posts_status_createdAt_id index (migration 013): each page reads page-size
+     * index entries regardless of how many posts exist. The head of the feed is served
+     * from {@link PostFeedCache}; authors are attached per request, on copies, so
+     * cached pages stay author-free and shared.
+     */
+    public PostFeedResponse getFeed(String cursor, int size, boolean expandAuthor) {
+        int pageSize = size > 0 ? Math.min(size, MAX_FEED_PAGE_SIZE) : DEFAULT_FEED_PAGE_SIZE;
+        String position = cursor != null && !cursor.isBlank() ? cursor : null;
+        PostFeedResponse page = postFeedCache.get(position, pageSize, () -> loadFeedPage(position, pageSize));
+        if (!expandAuthor) {
+            return page;
+        }
+        
+        List<PostResponse> posts = page.getPosts().stream().map(postMapper::copy).toList();
+        Map<Long, AuthorResponse> authors = authorCache.getAll(
+                posts.stream().map(post -> post.getUserId().longValue()).toList());
+        posts.forEach(post -> post.setAuthor(authors.get(post.getUserId().longValue())));
+        
+        return PostFeedResponse.builder()
+                .posts(posts)
+                .nextCursor(page.getNextCursor())
+                .build();
+    }
+    
+    private PostFeedResponse loadFeedPage(String cursor, int pageSize) {
+        Query query = Query.query(Criteria.where("status").is(EntityStatus.ACTIVE));
+        
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            if (!ObjectId.isValid(position.id())) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(position.timestamp()),
+                    Criteria.where("createdAt").is(position.timestamp()).and("_id").lt(new ObjectId(position.id()))
+            ));
+        }
+        
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(pageSize + 1);
+        
+        List<Post> posts = mongoTemplate.find(query, Post.class);
+        boolean hasMore = posts.size() > pageSize;
+        List<Post> page = hasMore ? posts.subList(0, pageSize) : posts;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            Post last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return PostFeedResponse.builder()
+                .posts(postMapper.toResponseList(page))
+                .nextCursor(nextCursor)
+                .build();
     }
     
     public List<PostResponse> getPostsByUserId(Integer userId) {
@@ -72,6 +142,8 @@ public class PostService {
         
         try {
             Post savedPost = postRepository.save(post);
+            postFeedCache.invalidate();
+            timelineService.fanOut(savedPost);
             
             PostResponse response = postMapper.toResponse(savedPost);
             return response;
@@ -101,40 +173,50 @@ public class PostService {
         return text;
     }
     
+    /**
+     * Writes only the edited fields, so likes and commentsCount moved by $inc since the
+     * post was read are not written back over.
+     */
     public PostResponse updatePost(String id, UpdatePostRequest request) {
         Post post = postRepository.findByIdAndStatus(id, EntityStatus.ACTIVE)
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
         
+        boolean contentChanged = request.getContent() != null && !request.getContent().equals(post.getContent());
         postMapper.updateDocumentFromRequest(request, post);
-        post.setUpdatedAt(Instant.now());
         
-        if (request.getContent() != null && !request.getContent().equals(post.getContent())) {
+        Update update = new Update()
+                .set("content", post.getContent())
+                .set("media", post.getMedia())
+                .set("updatedAt", Instant.now());
+        if (contentChanged) {
             String contentPreview = extractContentPreview(request.getContent());
-            String slug = SlugUtil.generateHybridSlug(contentPreview, post.getId());
-            post.setSlug(slug);
+            update.set("slug", SlugUtil.generateHybridSlug(contentPreview, post.getId()));
         }
         
-        Post savedPost = postRepository.save(post);
+        Post savedPost = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("status").is(EntityStatus.ACTIVE)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Post.class);
+        if (savedPost == null) {
+            throw new AppException(ErrorCode.POST_NOT_FOUND);
+        }
+        postFeedCache.invalidate();
         return postMapper.toResponse(savedPost);
     }
     
+    /** Sets only status and deletedAt; the counters are left as they are */
     public void deletePost(String id) {
-        Post post = postRepository.findByIdAndStatus(id, EntityStatus.ACTIVE)
-                .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
-        
-        post.setStatus(EntityStatus.DELETED);
-        post.setDeletedAt(Instant.now());
-        postRepository.save(post);
-    }
-
-    @Scheduled(cron = "0 0 2 * * ?")
-    public void cleanupDeletedPosts() {
-        Instant sevenDaysAgo = Instant.now().minus(7, ChronoUnit.DAYS);
-        List<Post> postsToDelete = postRepository.findByStatusAndDeletedAtBefore(EntityStatus.DELETED, sevenDaysAgo);
-        
-        if (!postsToDelete.isEmpty()) {
-            postRepository.deleteAll(postsToDelete);
-            log.info("Cleaned up {} deleted posts older than 7 days", postsToDelete.size());
+        Instant now = Instant.now();
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(id).and("status").is(EntityStatus.ACTIVE)),
+                new Update()
+                        .set("status", EntityStatus.DELETED)
+                        .set("deletedAt", now),
+                Post.class);
+        if (result.getMatchedCount() == 0) {
+            throw new AppException(ErrorCode.POST_NOT_FOUND);
         }
+        postFeedCache.invalidate();
     }
 }
@@ -23,6 +23,7 @@ public class ProfileService {
     private final ProfileRepository profileRepository;
     private final UserRepository userRepository;
     private final ProfileMapper profileMapper;
+    private final AuthorCache authorCache;
     
     @Transactional(readOnly = true)
     public ProfileResponse getProfile(Long userId) {
@@ -47,6 +48,7 @@ public class ProfileService {
         profile.setUpdatedAt(Instant.now());
     
         Profile savedProfile = profileRepository.save(profile);        
+        authorCache.evictAfterCommit(userId);
         return profileMapper.toResponse(savedProfile);
     }
     
@@ -58,6 +60,7 @@ public class ProfileService {
         profile.setStatus(EntityStatus.DELETED);
         profile.setDeletedAt(Instant.now());
         profileRepository.save(profile);
+        authorCache.evictAfterCommit(userId);
     }
     
     @Transactional
@@ -0,0 +1,175 @@
+package com.example.demo.service;
+
+import com.example.demo.document.PurgeProgress;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.repository.jpa.ProfileRepository;
+import com.example.demo.repository.jpa.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Hard-deletes Postgres rows that have been soft-deleted for longer than the
+ * retention period. Soft-deleted Mongo documents are not handled here: they expire
+ * through the partial TTL indexes of migration 018 without any work in the JVM,
+ * except message tombstones, which the changes feed needs and which are kept.
+ *
+ * <p>Each target is drained in batches of {@code batch-size}: select that many ids,
+ * remove them with one DELETE ... WHERE id IN, pause, repeat. Memory stays bounded by one batch and the databases see a steady
+ * trickle instead of one huge burst. Progress is written to {@link PurgeProgress}
+ * after every batch, so a run cut short by a restart resumes with the same cutoff.
+ * Runs hold a {@link JobLockService} lease, extended per batch, so only one node
+ * purges at a time.
+ */
+@Service
+@Slf4j
+public class PurgeService {
+
+    static final String LOCK_NAME = "purge";
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLockService jobLockService;
+    private final List<PurgeTarget> targets;
+
+    @Value("${purge.retention:7d}")
+    private Duration retention;
+
+    @Value("${purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${purge.batch-pause:200ms}")
+    private Duration batchPause;
+
+    @Value("${purge.max-batches-per-run:2000}")
+    private int maxBatchesPerRun;
+
+    @Value("${purge.lock-lease:5m}")
+    private Duration lockLease;
+
+    public PurgeService(MongoTemplate mongoTemplate,
+                        JobLockService jobLockService,
+                        UserRepository userRepository,
+                        ProfileRepository profileRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobLockService = jobLockService;
+        // Profiles before users: profiles soft-deleted on their own are not reached by the users FK cascade
+        this.targets = List.of(
+                PurgeTarget.of("profiles",
+                        (cutoff, limit) -> profileRepository.findIdsByStatusAndDeletedAtBefore(
+                                EntityStatus.DELETED, cutoff, PageRequest.of(0, limit)),
+                        ids -> (long) profileRepository.deleteAllByIdIn(ids)),
+                PurgeTarget.of("users",
+                        (cutoff, limit) -> userRepository.findIdsByStatusAndDeletedAtBefore(
+                                EntityStatus.DELETED, cutoff, PageRequest.of(0, limit)),
+                        ids -> (long) userRepository.deleteAllByIdIn(ids)));
+    }
+
+    PurgeService(MongoTemplate mongoTemplate, JobLockService jobLockService, List<PurgeTarget> targets) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobLockService = jobLockService;
+        this.targets = targets;
+    }
+
+    @Scheduled(cron = "${purge.cron:0 0 2 * * ?}")
+    public void purge() {
+        if (!jobLockService.tryAcquire(LOCK_NAME, lockLease)) {
+            return;
+        }
+        try {
+            for (PurgeTarget target : targets) {
+                if (!purge(target)) {
+                    break;
+                }
+            }
+        } finally {
+            jobLockService.release(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Drains one target. Returns false when the run should stop: the lease was lost,
+     * the batch budget ran out, or the thread was interrupted.
+     */
+    boolean purge(PurgeTarget target) {
+        PurgeProgress progress = startOrResume(target.name());
+        int batches = 0;
+
+        while (true) {
+            List<?> ids;
+            try {
+                ids = target.nextBatch(progress.getCutoff(), batchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                progress.setDeleted(progress.getDeleted() + target.delete(ids));
+            } catch (Exception e) {
+                log.error("Purge of {} failed after {} rows, will resume next run: {}",
+                        target.name(), progress.getDeleted(), e.getMessage());
+                return false;
+            }
+
+            progress.setUpdatedAt(Instant.now());
+            mongoTemplate.save(progress);
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+            if (++batches >= maxBatchesPerRun) {
+                log.info("Purge of {} paused after {} rows, will resume next run", target.name(), progress.getDeleted());
+                return false;
+            }
+            if (!jobLockService.tryAcquire(LOCK_NAME, lockLease)) {
+                log.warn("Lost purge lock during {}, stopping", target.name());
+                return false;
+            }
+            if (!pause()) {
+                return false;
+            }
+        }
+
+        progress.setFinishedAt(Instant.now());
+        mongoTemplate.save(progress);
+        if (progress.getDeleted() > 0) {
+            log.info("Purged {} {} soft-deleted before {}", progress.getDeleted(), target.name(), progress.getCutoff());
+        }
+        return true;
+    }
+
+    private PurgeProgress startOrResume(String name) {
+        PurgeProgress previous = mongoTemplate.findById(name, PurgeProgress.class);
+        if (previous != null && previous.getFinishedAt() == null) {
+            log.info("Resuming purge of {} with cutoff {} after {} rows", name, previous.getCutoff(), previous.getDeleted());
+            return previous;
+        }
+
+        Instant now = Instant.now();
+        PurgeProgress progress = PurgeProgress.builder()
+                .id(name)
+                .cutoff(now.minus(retention))
+                .deleted(0)
+                .startedAt(now)
+                .updatedAt(now)
+                .build();
+        return mongoTemplate.save(progress);
+    }
+
+    private boolean pause() {
+        if (batchPause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
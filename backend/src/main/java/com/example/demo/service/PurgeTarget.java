@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One kind of soft-deleted row the {@link PurgeService} removes for good. A target
+ * selects the ids of a bounded batch of rows deleted before the cutoff and removes
+ * exactly those with one server-side statement.
+ */
+public interface PurgeTarget {
+
+    String name();
+
+    /** Ids of up to {@code limit} rows soft-deleted before {@code cutoff} */
+    List<?> nextBatch(Instant cutoff, int limit);
+
+    /** Removes the given rows; returns how many were removed */
+    long delete(List<?> ids);
+
+    static <I> PurgeTarget of(String name, BatchFinder<I> finder, Function<List<I>, Long> deleter) {
+        return new PurgeTarget() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<?> nextBatch(Instant cutoff, int limit) {
+                return finder.find(cutoff, limit);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public long delete(List<?> ids) {
+                return deleter.apply((List<I>) ids);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface BatchFinder<I> {
+        List<I> find(Instant cutoff, int limit);
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Post;
+import com.example.demo.document.Timeline;
+import com.example.demo.dto.response.AuthorResponse;
+import com.example.demo.dto.response.PostFeedResponse;
+import com.example.demo.dto.response.PostResponse;
+import com.example.demo.entities.User;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.mapper.PostMapper;
+import com.example.demo.repository.jpa.UserFollowRepository;
+import com.example.demo.repository.jpa.UserRepository;
+import com.example.demo.repository.mongo.PostRepository;
+import com.example.demo.util.KeysetCursor;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Home timelines built by fan-out-on-write, with fan-out-on-read for high-follower
+ * accounts.
+ *
+ * <p>A new post is pushed into the {@link Timeline} document of every follower, in
+ * keyset batches over the follow graph, one unordered bulk upsert per batch. Authors
+ * with at least {@code celebrity-threshold} followers are skipped: their posts would
+ * cost one write per follower, so readers pull them instead with one indexed query
+ * over the (userId, status, createdAt) index (migration 014) and merge them with their
+ * materialized entries. Either way a read touches one timeline document, at most one
+ * range query and one $in lookup of page-size posts, never a scan of the posts
+ * collection.
+ *
+ * <p>Push or pull is decided by the author's follower count at the time, so an author
+ * crossing the threshold is handled explicitly. Crossing upwards, their earlier posts
+ * are both materialized and pulled; the merge drops the duplicates by post id.
+ * Crossing downwards, readers stop pulling them, so the posts that were only delivered
+ * on read (marked {@code pulled}) are pushed to every follower's timeline then.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int BACKFILL_POSTS = 20;
+
+    private static final Comparator<Timeline.Entry> NEWEST_FIRST = Comparator
+            .comparing(Timeline.Entry::getCreatedAt)
+            .thenComparing(Timeline.Entry::getPostId)
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+    private final PostRepository postRepository;
+    private final PostMapper postMapper;
+    private final UserRepository userRepository;
+    private final UserFollowRepository userFollowRepository;
+    private final AuthorCache authorCache;
+
+    private final ExecutorService fanoutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${posts.timeline.max-entries:800}")
+    private int maxEntries;
+
+    @Value("${posts.timeline.celebrity-threshold:10000}")
+    private int celebrityThreshold;
+
+    @Value("${posts.timeline.fanout-batch-size:1000}")
+    private int fanoutBatchSize;
+
+    /**
+     * Pushes the post to its author's own timeline and, unless the author is above the
+     * celebrity threshold, to every follower's, in the background.
+     */
+    public void fanOut(Post post) {
+        fanoutExecutor.execute(() -> {
+            try {
+                fanOutNow(post);
+            } catch (Exception e) {
+                log.error("Timeline fan-out failed for post {}: {}", post.getId(), e.getMessage(), e);
+            }
+        });
+    }
+
+    void fanOutNow(Post post) {
+        Long authorId = post.getUserId().longValue();
+        Timeline.Entry entry = entryOf(post);
+
+        push(List.of(authorId), entry);
+
+        // Marked before the count is read: an author dropping below the threshold in
+        // between then finds the post in catchUp instead of it reaching no timeline
+        setPulled(List.of(post.getId()), true);
+        int followers = userRepository.findById(authorId).map(User::getFollowersCount).orElse(0);
+        if (followers >= celebrityThreshold) {
+            log.debug("Post {} by {} ({} followers) is delivered on read", post.getId(), authorId, followers);
+            return;
+        }
+
+        long pushed = pushToFollowers(authorId, entry);
+        setPulled(List.of(post.getId()), false);
+        log.debug("Fanned out post {} to {} follower timelines", post.getId(), pushed);
+    }
+
+    /**
+     * Called with the count an unfollow left the author at. When that takes them below
+     * the celebrity threshold, their posts delivered on read are pushed in the background.
+     */
+    public void followersDecreased(Long authorId, int followers) {
+        if (followers != celebrityThreshold - 1) {
+            return;
+        }
+        fanoutExecutor.execute(() -> {
+            try {
+                catchUp(authorId);
+            } catch (Exception e) {
+                log.error("Timeline catch-up failed for author {}: {}", authorId, e.getMessage(), e);
+            }
+        });
+    }
+
+    /** Pushes the newest of the author's pulled posts, up to a full timeline, to every follower */
+    void catchUp(Long authorId) {
+        Query query = Query.query(Criteria.where("userId").is(authorId.intValue())
+                        .and("status").is(EntityStatus.ACTIVE)
+                        .and("pulled").is(true))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(maxEntries);
+        query.fields().include("_id", "userId", "createdAt");
+
+        List<Timeline.Entry> entries = mongoTemplate.find(query, Post.class).stream()
+                .map(this::entryOf)
+                .collect(Collectors.toList());
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        long pushed = pushToFollowers(authorId, entries.toArray());
+        setPulled(entries.stream().map(Timeline.Entry::getPostId).toList(), false);
+        log.info("Pushed {} posts by {} to {} follower timelines after it dropped below the threshold",
+                entries.size(), authorId, pushed);
+    }
+
+    /** Brings a followed account's recent posts into a new follower's timeline */
+    public void backfill(Long followerId, Long followeeId) {
+        int followers = userRepository.findById(followeeId).map(User::getFollowersCount).orElse(0);
+        if (followers >= celebrityThreshold) {
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("userId").is(followeeId.intValue()).and("status").is(EntityStatus.ACTIVE))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(BACKFILL_POSTS);
+        query.fields().include("_id", "userId", "createdAt");
+
+        List<Timeline.Entry> entries = mongoTemplate.find(query, Post.class).stream()
+                .map(this::entryOf)
+                .collect(Collectors.toList());
+        if (!entries.isEmpty()) {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(followerId)),
+                    pushUpdate(entries.toArray()),
+                    Timeline.class);
+        }
+    }
+
+    /** Drops an unfollowed account's posts from the follower's timeline */
+    public void removeAuthor(Long followerId, Long authorId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(followerId)),
+                new Update().pull("entries", new Document("authorId", authorId.intValue())),
+                Timeline.class);
+    }
+
+    public PostFeedResponse getTimeline(Long userId, String cursor, int size, boolean expandAuthor) {
+        int pageSize = size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        KeysetCursor position = null;
+        if (cursor != null && !cursor.isBlank()) {
+            position = KeysetCursor.decode(cursor);
+            if (!ObjectId.isValid(position.id())) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+        }
+
+        List<Timeline.Entry> candidates = new ArrayList<>(materializedEntries(userId, position, pageSize + 1));
+        candidates.addAll(pulledEntries(userId, position, pageSize + 1));
+        candidates.sort(NEWEST_FIRST);
+        // Posts of an author who crossed the threshold upwards come from both sources
+        Set<String> seen = new HashSet<>();
+        candidates.removeIf(entry -> !seen.add(entry.getPostId()));
+
+        boolean hasMore = candidates.size() > pageSize;
+        List<Timeline.Entry> page = hasMore ? candidates.subList(0, pageSize) : candidates;
+
+        Map<String, Post> posts = postRepository.findAllById(page.stream().map(Timeline.Entry::getPostId).toList())
+                .stream()
+                .filter(post -> post.getStatus() == EntityStatus.ACTIVE)
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+
+        // Deleted posts are dropped here rather than pulled out of every timeline
+        List<Post> ordered = page.stream()
+                .map(entry -> posts.get(entry.getPostId()))
+                .filter(post -> post != null)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Timeline.Entry last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+
+        List<PostResponse> responses = postMapper.toResponseList(ordered);
+        if (expandAuthor) {
+            Map<Long, AuthorResponse> authors = authorCache.getAll(
+                    responses.stream().map(post -> post.getUserId().longValue()).toList());
+            responses.forEach(post -> post.setAuthor(authors.get(post.getUserId().longValue())));
+        }
+
+        return PostFeedResponse.builder()
+                .posts(responses)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private List<Timeline.Entry> materializedEntries(Long userId, KeysetCursor position, int limit) {
+        Timeline timeline = mongoTemplate.findById(userId, Timeline.class);
+        if (timeline == null || timeline.getEntries() == null) {
+            return List.of();
+        }
+        Set<String> seen = new HashSet<>();
+        return timeline.getEntries().stream()
+                .filter(entry -> isBefore(entry, position))
+                .filter(entry -> seen.add(entry.getPostId()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private List<Timeline.Entry> pulledEntries(Long userId, KeysetCursor position, int limit) {
+        List<Long> celebrities = userFollowRepository.findFolloweesWithFollowersAtLeast(userId, celebrityThreshold);
+        if (celebrities.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = Query.query(Criteria.where("userId").in(celebrities.stream().map(Long::intValue).toList())
+                .and("status").is(EntityStatus.ACTIVE));
+        if (position != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(position.timestamp()),
+                    Criteria.where("createdAt").is(position.timestamp()).and("_id").lt(new ObjectId(position.id()))
+            ));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit);
+        query.fields().include("_id", "userId", "createdAt");
+
+        return mongoTemplate.find(query, Post.class).stream()
+                .map(this::entryOf)
+                .collect(Collectors.toList());
+    }
+
+    /** Keyset batches over the follow graph; returns how many timelines were written */
+    private long pushToFollowers(Long authorId, Object... entries) {
+        long pushed = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> batch = userFollowRepository.findFollowerIdsAfter(authorId, afterId, PageRequest.of(0, fanoutBatchSize));
+            if (batch.isEmpty()) {
+                return pushed;
+            }
+            push(batch, entries);
+            pushed += batch.size();
+            afterId = batch.get(batch.size() - 1);
+        }
+    }
+
+    private void push(List<Long> userIds, Object... entries) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Timeline.class);
+        for (Long userId : userIds) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(userId)), pushUpdate(entries));
+        }
+        bulk.execute();
+    }
+
+    private void setPulled(List<String> postIds, boolean pulled) {
+        Update update = pulled ? Update.update("pulled", true) : new Update().unset("pulled");
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(postIds)), update, Post.class);
+    }
+
+    /**
+     * $push with $sort/$slice keeps each timeline newest first and capped, in the same
+     * (createdAt, postId) order that pages and cursors use
+     */
+    private Update pushUpdate(Object... entries) {
+        return new Update()
+                .set("updatedAt", Instant.now())
+                .push("entries")
+                .sort(Sort.by(Sort.Direction.DESC, "createdAt", "postId"))
+                .slice(maxEntries)
+                .each(entries);
+    }
+
+    private Timeline.Entry entryOf(Post post) {
+        return Timeline.Entry.builder()
+                .postId(post.getId())
+                .authorId(post.getUserId())
+                .createdAt(post.getCreatedAt())
+                .build();
+    }
+
+    private static boolean isBefore(Timeline.Entry entry, KeysetCursor position) {
+        if (position == null) {
+            return true;
+        }
+        int byTime = entry.getCreatedAt().compareTo(position.timestamp());
+        return byTime < 0 || (byTime == 0 && entry.getPostId().compareTo(position.id()) < 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanoutExecutor.shutdown();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.internal.TypingIndicator;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.repository.mongo.ConversationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side debouncing of typing indicators. Clients emit keystroke-rate events;
+ * per (user, conversation) at most one "typing" frame is relayed per throttle window,
+ * and a "stopped" frame is relayed either on an explicit stop or when no event has
+ * been seen for the expiry period.
+ */
+@Service
+@Slf4j
+public class TypingIndicatorService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ConversationRepository conversationRepository;
+    private final long throttleMs;
+    private final long expiryMs;
+
+    private final Counter relayedCounter;
+    private final Counter suppressedCounter;
+    private final Counter rejectedCounter;
+
+    private final ConcurrentHashMap<TypingKey, TypingState> typingStates = new ConcurrentHashMap<>();
+
+    record TypingKey(Long userId, String conversationId) {
+    }
+
+    private static final class TypingState {
+        private final String username;
+        private long lastRelayedAt;
+        private long lastSeenAt;
+
+        private TypingState(String username, long now) {
+            this.username = username;
+            this.lastRelayedAt = now;
+            this.lastSeenAt = now;
+        }
+    }
+
+    public TypingIndicatorService(SimpMessagingTemplate messagingTemplate,
+                                  ConversationRepository conversationRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${chat.typing.throttle:3000}") long throttleMs,
+                                  @Value("${chat.typing.expiry:5000}") long expiryMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.conversationRepository = conversationRepository;
+        this.throttleMs = throttleMs;
+        this.expiryMs = expiryMs;
+        this.relayedCounter = meterRegistry.counter("chat.typing.relayed");
+        this.suppressedCounter = meterRegistry.counter("chat.typing.suppressed");
+        this.rejectedCounter = meterRegistry.counter("chat.typing.rejected");
+    }
+
+    public void onTyping(Long userId, TypingIndicator indicator) {
+        if (indicator.getConversationId() == null) {
+            return;
+        }
+
+        TypingKey key = new TypingKey(userId, indicator.getConversationId());
+        long now = System.currentTimeMillis();
+
+        if (!Boolean.TRUE.equals(indicator.getIsTyping())) {
+            TypingState removed = typingStates.remove(key);
+            if (removed != null) {
+                relay(key, removed.username, false);
+            } else {
+                suppressedCounter.increment();
+            }
+            return;
+        }
+
+        // Membership is only checked when a new typing burst starts, not per keystroke
+        if (!typingStates.containsKey(key) && !isParticipant(key)) {
+            rejectedCounter.increment();
+            log.debug("Rejected typing event from user {} for conversation {}", userId, key.conversationId());
+            return;
+        }
+
+        boolean[] shouldRelay = new boolean[1];
+        typingStates.compute(key, (k, state) -> {
+            if (state == null) {
+                shouldRelay[0] = true;
+                return new TypingState(indicator.getUsername(), now);
+            }
+            state.lastSeenAt = now;
+            if (now - state.lastRelayedAt >= throttleMs) {
+                state.lastRelayedAt = now;
+                shouldRelay[0] = true;
+            }
+            return state;
+        });
+
+        if (shouldRelay[0]) {
+            relay(key, indicator.getUsername(), true);
+        } else {
+            suppressedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void expireIdleTyping() {
+        long now = System.currentTimeMillis();
+        List<TypingKey> expired = new ArrayList<>();
+
+        typingStates.forEach((key, state) -> {
+            if (now - state.lastSeenAt >= expiryMs) {
+                expired.add(key);
+            }
+        });
+
+        for (TypingKey key : expired) {
+            TypingState[] removed = new TypingState[1];
+            typingStates.computeIfPresent(key, (k, state) -> {
+                if (now - state.lastSeenAt >= expiryMs) {
+                    removed[0] = state;
+                    return null;
+                }
+                return state;
+            });
+            if (removed[0] != null) {
+                relay(key, removed[0].username, false);
+            }
+        }
+    }
+
+    private boolean isParticipant(TypingKey key) {
+        return conversationRepository.findByIdAndStatus(key.conversationId(), EntityStatus.ACTIVE)
+                .map(conversation -> conversation.getParticipantIds().contains(key.userId()))
+                .orElse(false);
+    }
+
+    private void relay(TypingKey key, String username, boolean isTyping) {
+        TypingIndicator outbound = new TypingIndicator();
+        outbound.setConversationId(key.conversationId());
+        outbound.setUserId(key.userId());
+        outbound.setUsername(username);
+        outbound.setIsTyping(isTyping);
+
+        messagingTemplate.convertAndSend("/topic/typing." + key.conversationId(), outbound);
+        relayedCounter.increment();
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ClusterNode;
+import com.example.demo.config.RabbitMQConfig;
+import com.example.demo.dto.internal.UserChannelFrame;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Per-user frames (conversation list updates, presence) without a broker queue per user.
+ *
+ * <p>Clients subscribe to {@link #MESSAGES} / {@link #PRESENCE}. Those destinations match
+ * no broker prefix, so the subscription never leaves this node: it is recorded in an
+ * in-memory userId → sessions map and frames are written straight to the client
+ * outbound channel. Frames for users connected elsewhere are grouped by node using
+ * {@link UserNodeDirectory} and published once per node to that node's queue.
+ */
+@Service
+@Slf4j
+public class UserChannelService {
+
+    public static final String DESTINATION_PREFIX = "/user-channel.";
+    public static final String MESSAGES = DESTINATION_PREFIX + "messages";
+    public static final String PRESENCE = DESTINATION_PREFIX + "presence";
+
+    private final MessageChannel clientOutboundChannel;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final UserNodeDirectory userNodeDirectory;
+    private final ClusterNode clusterNode;
+
+    private record LocalSubscription(String sessionId, String subscriptionId, String destination) {
+    }
+
+    private final Map<Long, Set<LocalSubscription>> localSubscriptions = new ConcurrentHashMap<>();
+    private final Map<String, Long> sessionUsers = new ConcurrentHashMap<>();
+
+    public UserChannelService(
+            @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+            SimpMessagingTemplate messagingTemplate,
+            RabbitTemplate rabbitTemplate,
+            UserNodeDirectory userNodeDirectory,
+            ClusterNode clusterNode) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.messagingTemplate = messagingTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.userNodeDirectory = userNodeDirectory;
+        this.clusterNode = clusterNode;
+    }
+
+    /**
+     * Serializes the payload once and routes it to every node holding a session for
+     * one of the users. Users with no live session are skipped; they reload state on
+     * reconnect.
+     */
+    public void sendToUsers(Collection<Long> userIds, String destination, Object payload) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        byte[] body = serialize(payload);
+        Map<String, List<Long>> usersByNode = userNodeDirectory.nodesFor(userIds);
+
+        usersByNode.forEach((nodeId, nodeUserIds) -> {
+            if (nodeId.equals(clusterNode.getNodeId())) {
+                deliverLocally(nodeUserIds, destination, body);
+                return;
+            }
+            try {
+                rabbitTemplate.convertAndSend(RabbitMQConfig.USER_CHANNEL_EXCHANGE, nodeId,
+                        new UserChannelFrame(nodeUserIds, destination, new String(body, StandardCharsets.UTF_8)));
+            } catch (Exception e) {
+                log.error("Failed to route user-channel frame to node {}: {}", nodeId, e.getMessage());
+            }
+        });
+    }
+
+    @RabbitListener(queues = "#{@clusterNode.userChannelQueue()}", containerFactory = RabbitMQConfig.ORDERED_LISTENER_FACTORY)
+    public void onRemoteFrame(UserChannelFrame frame) {
+        deliverLocally(frame.getUserIds(), frame.getDestination(), frame.getBody().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        Long userId = userIdOf(event.getUser());
+        if (destination == null || !destination.startsWith(DESTINATION_PREFIX) || userId == null) {
+            return;
+        }
+
+        String sessionId = accessor.getSessionId();
+        sessionUsers.put(sessionId, userId);
+
+        // The directory write happens inside compute() so a concurrent last-unsubscribe
+        // for the same user cannot land its unregister after this register
+        localSubscriptions.compute(userId, (key, subscriptions) -> {
+            if (subscriptions == null) {
+                subscriptions = ConcurrentHashMap.newKeySet();
+                userNodeDirectory.register(userId);
+            }
+            subscriptions.add(new LocalSubscription(sessionId, accessor.getSubscriptionId(), destination));
+            return subscriptions;
+        });
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        removeWhere(sessionId, subscription -> subscription.subscriptionId().equals(subscriptionId));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        removeWhere(event.getSessionId(), subscription -> true);
+        sessionUsers.remove(event.getSessionId());
+    }
+
+    private void removeWhere(String sessionId, Predicate<LocalSubscription> filter) {
+        Long userId = sessionUsers.get(sessionId);
+        if (userId == null) {
+            return;
+        }
+
+        localSubscriptions.computeIfPresent(userId, (key, subscriptions) -> {
+            subscriptions.removeIf(subscription -> subscription.sessionId().equals(sessionId) && filter.test(subscription));
+            if (subscriptions.isEmpty()) {
+                userNodeDirectory.unregister(userId);
+                return null;
+            }
+            return subscriptions;
+        });
+    }
+
+    private void deliverLocally(Collection<Long> userIds, String destination, byte[] body) {
+        for (Long userId : userIds) {
+            Set<LocalSubscription> subscriptions = localSubscriptions.get(userId);
+            if (subscriptions == null) {
+                continue;
+            }
+            for (LocalSubscription subscription : subscriptions) {
+                if (subscription.destination().equals(destination)) {
+                    clientOutboundChannel.send(frame(subscription, body));
+                }
+            }
+        }
+    }
+
+    private Message<byte[]> frame(LocalSubscription subscription, byte[] body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(subscription.sessionId());
+        accessor.setSubscriptionId(subscription.subscriptionId());
+        accessor.setDestination(subscription.destination());
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+
+    private byte[] serialize(Object payload) {
+        Message<?> converted = messagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (converted == null || !(converted.getPayload() instanceof byte[] bytes)) {
+            throw new IllegalStateException("Cannot serialize user-channel payload " + payload.getClass().getName());
+        }
+        return bytes;
+    }
+
+    private Long userIdOf(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(principal.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Comment;
+import com.example.demo.document.ConversationMember;
+import com.example.demo.document.Conversation;
+import com.example.demo.document.Post;
+import com.example.demo.document.PostLike;
+import com.example.demo.document.Timeline;
+import com.example.demo.document.UserDeletion;
+import com.example.demo.enums.ConversationType;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.repository.jpa.UserFollowRepository;
+import com.example.demo.repository.jpa.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Soft-deletes everything a deleted account left behind in Mongo, in the background.
+ *
+ * <p>Each phase repeatedly takes the next {@code batch-size} of the user's remaining
+ * live documents over a per-user index and retires them with one bulk write, so a
+ * phase is naturally idempotent: re-running it after a crash just finds fewer
+ * documents. Progress is recorded in {@link UserDeletion} after every batch; runs
+ * hold a {@link JobLockService} lease per user, and a periodic sweep resumes any
+ * cascade whose node died. The account itself is already DELETED and evicted from
+ * the author cache before the cascade starts; a run that finds it no longer DELETED
+ * drops the record instead of continuing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserContentCascade {
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatService chatService;
+    private final CommentCountBuffer commentCountBuffer;
+    private final PostLikeCounter postLikeCounter;
+    private final PostFeedCache postFeedCache;
+    private final FollowService followService;
+    private final UserFollowRepository userFollowRepository;
+    private final UserRepository userRepository;
+    private final JobLockService jobLockService;
+
+    private final ExecutorService cascadeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${users.deletion.batch-size:200}")
+    private int batchSize;
+
+    @Value("${users.deletion.batch-pause:100ms}")
+    private Duration batchPause;
+
+    @Value("${users.deletion.lock-lease:5m}")
+    private Duration lockLease;
+
+    /**
+     * Records the cascade and starts it once the surrounding transaction (the one that
+     * marks the account DELETED) has committed. Nothing is written to Mongo before
+     * then, so a rolled-back deletion leaves no cascade behind.
+     */
+    public void start(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    begin(userId);
+                }
+            });
+        } else {
+            begin(userId);
+        }
+    }
+
+    private void begin(Long userId) {
+        try {
+            Instant now = Instant.now();
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("_id").is(userId)),
+                    new Update()
+                            .setOnInsert("phase", UserDeletion.Phase.POSTS)
+                            .setOnInsert("startedAt", now)
+                            .set("updatedAt", now)
+                            .unset("finishedAt"),
+                    UserDeletion.class);
+        } catch (Exception e) {
+            // The account is already DELETED; without the record there is nothing to resume from
+            log.error("Failed to record content cascade for deleted user {}: {}", userId, e.getMessage(), e);
+            return;
+        }
+        launch(userId);
+    }
+
+    /** Picks up cascades whose node stopped before finishing them */
+    @Scheduled(fixedDelayString = "${users.deletion.resume-interval:60000}")
+    public void resumeUnfinished() {
+        Instant stale = Instant.now().minus(lockLease);
+        List<UserDeletion> unfinished = mongoTemplate.find(
+                Query.query(Criteria.where("finishedAt").is(null).and("updatedAt").lt(stale)),
+                UserDeletion.class);
+        unfinished.forEach(deletion -> launch(deletion.getId()));
+    }
+
+    private void launch(Long userId) {
+        cascadeExecutor.execute(() -> {
+            try {
+                run(userId);
+            } catch (Exception e) {
+                log.error("Content cascade for deleted user {} failed, will resume: {}", userId, e.getMessage(), e);
+            }
+        });
+    }
+
+    void run(Long userId) {
+        String lock = "user-deletion:" + userId;
+        if (!jobLockService.tryAcquire(lock, lockLease)) {
+            return;
+        }
+        try {
+            UserDeletion deletion = mongoTemplate.findById(userId, UserDeletion.class);
+            if (deletion == null || deletion.getFinishedAt() != null) {
+                return;
+            }
+
+            // A purged row is still a deleted account; anything else was restored since
+            boolean deleted = userRepository.findById(userId)
+                    .map(user -> user.getStatus() == EntityStatus.DELETED)
+                    .orElse(true);
+            if (!deleted) {
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId)), UserDeletion.class);
+                log.info("User {} is no longer deleted, dropped its content cascade", userId);
+                return;
+            }
+
+            while (deletion.getPhase() != UserDeletion.Phase.DONE) {
+                UserDeletion.Phase phase = deletion.getPhase();
+                int handled = runBatch(phase, userId);
+                deletion.getProcessed().merge(phase.name(), (long) handled, Long::sum);
+
+                if (handled < batchSize) {
+                    finishPhase(phase, userId);
+                    deletion.setPhase(UserDeletion.Phase.values()[phase.ordinal() + 1]);
+                }
+                deletion.setUpdatedAt(Instant.now());
+                mongoTemplate.save(deletion);
+
+                if (!jobLockService.tryAcquire(lock, lockLease) || !pause()) {
+                    return;
+                }
+            }
+
+            deletion.setFinishedAt(Instant.now());
+            mongoTemplate.save(deletion);
+            log.info("Content cascade for deleted user {} finished: {}", userId, deletion.getProcessed());
+        } finally {
+            jobLockService.release(lock);
+        }
+    }
+
+    private int runBatch(UserDeletion.Phase phase, Long userId) {
+        return switch (phase) {
+            case POSTS -> deletePosts(userId);
+            case COMMENTS -> deleteComments(userId);
+            case LIKES -> deleteLikes(userId);
+            case MESSAGES -> chatService.tombstoneMessagesOf(userId, batchSize);
+            case MEMBERSHIPS -> leaveConversations(userId);
+            case FOLLOWS -> unfollowAll(userId);
+            case DONE -> 0;
+        };
+    }
+
+    private void finishPhase(UserDeletion.Phase phase, Long userId) {
+        switch (phase) {
+            case POSTS -> postFeedCache.invalidate();
+            case FOLLOWS -> {
+                userFollowRepository.deleteAllByFolloweeId(userId);
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId)), Timeline.class);
+            }
+            default -> {
+            }
+        }
+    }
+
+    private int deletePosts(Long userId) {
+        List<Post> posts = nextBatch(Criteria.where("userId").is(userId.intValue()), Post.class, "_id");
+        if (!posts.isEmpty()) {
+            markDeleted(posts.stream().map(Post::getId).toList(), Post.class);
+        }
+        return posts.size();
+    }
+
+    private int deleteComments(Long userId) {
+        List<Comment> comments = nextBatch(Criteria.where("userId").is(userId.intValue()), Comment.class,
+                "_id", "postId", "parentId");
+        if (!comments.isEmpty()) {
+            markDeleted(comments.stream().map(Comment::getId).toList(), Comment.class);
+            for (Comment comment : comments) {
+                commentCountBuffer.adjustComments(comment.getPostId(), -1);
+                if (comment.getParentId() != null) {
+                    commentCountBuffer.adjustReplies(comment.getParentId(), -1);
+                }
+            }
+        }
+        return comments.size();
+    }
+
+    private int deleteLikes(Long userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId)).limit(batchSize);
+        List<PostLike> likes = mongoTemplate.find(query, PostLike.class);
+        if (!likes.isEmpty()) {
+            mongoTemplate.remove(
+                    Query.query(Criteria.where("_id").in(likes.stream().map(PostLike::getId).toList())),
+                    PostLike.class);
+            likes.forEach(like -> postLikeCounter.add(like.getPostId(), -1));
+        }
+        return likes.size();
+    }
+
+    /** Large-group member rows go, and the user leaves every group; direct chats keep both sides */
+    private int leaveConversations(Long userId) {
+        long members = mongoTemplate.remove(
+                Query.query(Criteria.where("userId").is(userId)), ConversationMember.class).getDeletedCount();
+        long groups = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("type").is(ConversationType.GROUP).and("participantIds").is(userId)),
+                new Update().pull("participantIds", userId),
+                Conversation.class).getModifiedCount();
+        return (int) (members + groups);
+    }
+
+    private int unfollowAll(Long userId) {
+        List<Long> followees = userFollowRepository.findFolloweeIds(userId, PageRequest.of(0, batchSize));
+        followees.forEach(followeeId -> followService.unfollow(userId, followeeId));
+        return followees.size();
+    }
+
+    private <T> List<T> nextBatch(Criteria owner, Class<T> type, String... fields) {
+        Query query = Query.query(owner.and("status").is(EntityStatus.ACTIVE)).limit(batchSize);
+        query.fields().include(fields);
+        return mongoTemplate.find(query, type);
+    }
+
+    private void markDeleted(List<String> ids, Class<?> type) {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids).and("status").is(EntityStatus.ACTIVE)),
+                new Update().set("status", EntityStatus.DELETED).set("deletedAt", Instant.now()),
+                type);
+    }
+
+    private boolean pause() {
+        if (batchPause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cascadeExecutor.shutdown();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ClusterNode;
+import com.example.demo.document.UserNodeRoute;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Presence-aware directory of which backend nodes hold sessions for which users.
+ * A node registers a user when the user's first local session opens and removes the
+ * entry when the last one closes. Entries are kept alive by a periodic touch of all
+ * of this node's rows, so the TTL index drops the rows of a node that crashed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserNodeDirectory {
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterNode clusterNode;
+
+    public void register(Long userId) {
+        String nodeId = clusterNode.getNodeId();
+        mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(UserNodeRoute.idOf(userId, nodeId))),
+                new Update()
+                        .set("userId", userId)
+                        .set("nodeId", nodeId)
+                        .set("lastSeenAt", Instant.now()),
+                FindAndModifyOptions.options().upsert(true),
+                UserNodeRoute.class);
+    }
+
+    public void unregister(Long userId) {
+        mongoTemplate.remove(
+                Query.query(Criteria.where("_id").is(UserNodeRoute.idOf(userId, clusterNode.getNodeId()))),
+                UserNodeRoute.class);
+    }
+
+    /**
+     * Groups the given users by the nodes they are connected to. Users with no live
+     * session anywhere are absent from the result.
+     */
+    public Map<String, List<Long>> nodesFor(Collection<Long> userIds) {
+        Query query = Query.query(Criteria.where("userId").in(userIds));
+        query.fields().include("userId").include("nodeId");
+
+        Map<String, List<Long>> usersByNode = new HashMap<>();
+        for (UserNodeRoute route : mongoTemplate.find(query, UserNodeRoute.class)) {
+            usersByNode.computeIfAbsent(route.getNodeId(), key -> new ArrayList<>()).add(route.getUserId());
+        }
+        return usersByNode;
+    }
+
+    @Scheduled(fixedRateString = "${chat.user-channel.directory-refresh:30000}")
+    public void refresh() {
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("nodeId").is(clusterNode.getNodeId())),
+                Update.update("lastSeenAt", Instant.now()),
+                UserNodeRoute.class);
+    }
+
+    @PreDestroy
+    public void removeNode() {
+        try {
+            mongoTemplate.remove(
+                    Query.query(Criteria.where("nodeId").is(clusterNode.getNodeId())),
+                    UserNodeRoute.class);
+        } catch (Exception e) {
+            log.warn("Failed to clear node directory for {}: {}", clusterNode.getNodeId(), e.getMessage());
+        }
+    }
+}
@@ -9,22 +9,38 @@ import com.example.demo.enums.PresenceStatus;
 import com.example.demo.repository.jpa.UserRepository;
 import com.example.demo.repository.mongo.ConversationRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+/**
+ * In-memory presence with a write-behind for users.last_seen.
+ *
+ * <p>Disconnects arrive in storms (a node restart, a network blip), and each one used to
+ * load and save its user in its own transaction. They are now coalesced per user and
+ * flushed on a short fixed delay as one JDBC batch of single-column UPDATEs, without
+ * loading the users. Reads prefer a pending value over the stored one, so nobody sees a
+ * stale last-seen in between.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserPresenceService {
 
     private final ConcurrentHashMap<Long, SessionInfo> activeSessions = new ConcurrentHashMap<>();
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ConcurrentHashMap<Long, Instant> pendingLastSeen = new ConcurrentHashMap<>();
+    private final UserChannelService userChannelService;
     private final ConversationRepository conversationRepository;
     private final UserRepository userRepository;
 
@@ -45,11 +61,7 @@ public class UserPresenceService {
         SessionInfo sessionInfo = activeSessions.get(userId);
         if (sessionInfo != null && sessionInfo.getSessionId().equals(sessionId)) {
             activeSessions.remove(userId);
-
-            userRepository.findById(userId).ifPresent(user -> {
-                user.setLastSeen(Instant.now());
-                userRepository.save(user);
-            });
+            recordLastSeen(userId);
 
             broadcastPresenceUpdate(userId, PresenceStatus.OFFLINE);
         }
@@ -78,7 +90,7 @@ public class UserPresenceService {
                         response.setLastSeen(sessionInfo.getLastHeartbeat());
                     } else {
                         response.setStatus(PresenceStatus.OFFLINE);
-                        response.setLastSeen(user.getLastSeen());
+                        response.setLastSeen(pendingLastSeen.getOrDefault(user.getId(), user.getLastSeen()));
                     }
 
                     return response;
@@ -103,15 +115,13 @@ public class UserPresenceService {
         SessionInfo sessionInfo = activeSessions.get(userId);
         response.setLastSeen(sessionInfo != null ? sessionInfo.getLastHeartbeat() : Instant.now());
 
-        conversations.stream()
+        List<Long> recipients = conversations.stream()
                 .flatMap(conv -> conv.getParticipantIds().stream())
                 .filter(participantId -> !participantId.equals(userId))
                 .distinct()
-                .forEach(participantId -> {
-                    // Use RabbitMQ STOMP compliant destination format
-                    String presenceQueueDestination = "/queue/presence." + participantId;
-                    messagingTemplate.convertAndSend(presenceQueueDestination, response);
-                });
+                .collect(Collectors.toList());
+
+        userChannelService.sendToUsers(recipients, UserChannelService.PRESENCE, response);
     }
 
     @Scheduled(fixedRate = 30000)
@@ -129,16 +139,58 @@ public class UserPresenceService {
         staleUsers.forEach(userId -> {
             SessionInfo removed = activeSessions.remove(userId);
             if (removed != null) {
-                userRepository.findById(userId).ifPresent(user -> {
-                    user.setLastSeen(Instant.now());
-                    userRepository.save(user);
-                });
+                recordLastSeen(userId);
 
                 broadcastPresenceUpdate(userId, PresenceStatus.OFFLINE);
             }
         });
     }
 
+    /**
+     * Writes the coalesced last-seen times with a targeted UPDATE per user that only
+     * matches active rows, so users deleted meanwhile are skipped and no other column is
+     * written back. Entries leave the buffer only once the transaction commits, and only
+     * if no newer time was recorded meanwhile, so a failed flush is retried by the next one.
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.last-seen-flush-interval:1000}")
+    @Transactional
+    public void flushLastSeen() {
+        if (pendingLastSeen.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Instant> batch = new HashMap<>(pendingLastSeen);
+
+        int updated = userRepository.updateLastSeen(batch);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    batch.forEach(pendingLastSeen::remove);
+                    log.debug("Flushed last-seen for {} users", updated);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        log.error("Failed to flush last-seen for {} users, will retry", batch.size());
+                    }
+                }
+            });
+        } else {
+            batch.forEach(pendingLastSeen::remove);
+        }
+    }
+
+    private void recordLastSeen(Long userId) {
+        pendingLastSeen.merge(userId, Instant.now(), (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    int pendingLastSeenCount() {
+        return pendingLastSeen.size();
+    }
+
     public void updateHeartbeat(Long userId) {
         SessionInfo sessionInfo = activeSessions.get(userId);
         if (sessionInfo != null) {
@@ -159,7 +211,7 @@ public class UserPresenceService {
                         response.setLastSeen(sessionInfo.getLastHeartbeat());
                     } else {
                         response.setStatus(PresenceStatus.OFFLINE);
-                        response.setLastSeen(user.getLastSeen());
+                        response.setLastSeen(pendingLastSeen.getOrDefault(user.getId(), user.getLastSeen()));
                     }
 
                     return response;
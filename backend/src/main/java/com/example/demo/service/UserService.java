@@ -14,12 +14,10 @@ import com.example.demo.repository.jpa.ProfileRepository;
 import com.example.demo.repository.jpa.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Service
@@ -31,6 +29,8 @@ public class UserService {
     private final ProfileRepository profileRepository;
     private final UserMapper userMapper;
     private final ProfileMapper profileMapper;
+    private final AuthorCache authorCache;
+    private final UserContentCascade userContentCascade;
 
     public List<UserResponse> getAllUsers() {
         List<User> users = userRepository.findByStatus(EntityStatus.ACTIVE);
@@ -66,6 +66,7 @@ public class UserService {
         profile.setUpdatedAt(Instant.now());
         
         Profile savedProfile = profileRepository.save(profile);
+        authorCache.evictAfterCommit(userId);
         return profileMapper.toResponse(savedProfile);
     }
     
@@ -85,23 +86,7 @@ public class UserService {
                     profile.setDeletedAt(now);
                     profileRepository.save(profile);
                 });
-    }
-    
-    @Scheduled(cron = "0 0 3 * * ?")
-    @Transactional
-    public void cleanupDeletedUsers() {
-        Instant sevenDaysAgo = Instant.now().minus(7, ChronoUnit.DAYS);
-        
-        List<Profile> profilesToDelete = profileRepository.findByStatusAndDeletedAtBefore(EntityStatus.DELETED, sevenDaysAgo);
-        if (!profilesToDelete.isEmpty()) {
-            profileRepository.deleteAll(profilesToDelete);
-            log.info("Cleaned up {} deleted profiles older than 7 days", profilesToDelete.size());
-        }
-        
-        List<User> usersToDelete = userRepository.findByStatusAndDeletedAtBefore(EntityStatus.DELETED, sevenDaysAgo);
-        if (!usersToDelete.isEmpty()) {
-            userRepository.deleteAll(usersToDelete);
-            log.info("Cleaned up {} deleted users older than 7 days", usersToDelete.size());
-        }
+        authorCache.evictAfterCommit(userId);
+        userContentCascade.start(userId);
     }
 }
@@ -0,0 +1,35 @@
+package com.example.demo.util;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor over (timestamp, id), encoded as URL-safe base64 of
+ * "epochMillis:id". The id breaks ties between documents sharing a timestamp.
+ */
+public record KeysetCursor(Instant timestamp, String id) {
+
+    public String encode() {
+        String raw = timestamp.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            return new KeysetCursor(
+                    Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+                    raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
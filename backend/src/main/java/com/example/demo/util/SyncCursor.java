@@ -0,0 +1,66 @@
+package com.example.demo.util;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque position in a chat sync pass, encoded as URL-safe base64 of
+ * "since|conversationMillis|conversationId|messagesOf|messageMillis|messageId" with
+ * empty fields for absent parts.
+ *
+ * <p>{@code since} is the lower bound of the pass (changes after it; null while a first
+ * sync is still paging). {@code conversation} is the (changedAt, _id) of the last
+ * conversation returned in full. When a conversation's message delta was capped,
+ * {@code messagesOf} names it and {@code messages} is the (changedAt, _id) of the last
+ * message returned, so the next page resumes inside that conversation.
+ */
+public record SyncCursor(Instant since, KeysetCursor conversation, String messagesOf, KeysetCursor messages) {
+
+    /** Start of the next pass: every change after {@code since} */
+    public static SyncCursor after(Instant since) {
+        return new SyncCursor(since, null, null, null);
+    }
+
+    public String encode() {
+        String raw = String.join("|",
+                since != null ? Long.toString(since.toEpochMilli()) : "",
+                conversation != null ? Long.toString(conversation.timestamp().toEpochMilli()) : "",
+                conversation != null ? conversation.id() : "",
+                messagesOf != null ? messagesOf : "",
+                messages != null ? Long.toString(messages.timestamp().toEpochMilli()) : "",
+                messages != null ? messages.id() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 6) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            return new SyncCursor(
+                    parts[0].isEmpty() ? null : Instant.ofEpochMilli(Long.parseLong(parts[0])),
+                    keyset(parts[1], parts[2]),
+                    parts[3].isEmpty() ? null : parts[3],
+                    keyset(parts[4], parts[5]));
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+
+    private static KeysetCursor keyset(String millis, String id) {
+        if (millis.isEmpty() && id.isEmpty()) {
+            return null;
+        }
+        if (!ObjectId.isValid(id)) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        return new KeysetCursor(Instant.ofEpochMilli(Long.parseLong(millis)), id);
+    }
+}
@@ -0,0 +1,25 @@
+-- liquibase formatted sql
+
+-- changeset kiro:add-user-follows-1
+CREATE TABLE user_follows
+(
+    follower_id BIGINT                                    NOT NULL,
+    followee_id BIGINT                                    NOT NULL,
+    created_at  TIMESTAMP WITHOUT TIME ZONE DEFAULT NOW() NOT NULL,
+    CONSTRAINT pk_user_follows PRIMARY KEY (follower_id, followee_id),
+    CONSTRAINT fk_user_follows_follower FOREIGN KEY (follower_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_user_follows_followee FOREIGN KEY (followee_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT ck_user_follows_not_self CHECK (follower_id <> followee_id)
+);
+--rollback DROP TABLE user_follows;
+
+-- changeset kiro:add-user-follows-2
+-- Followers of an author in id order, walked in keyset batches by timeline fan-out
+CREATE INDEX idx_user_follows_followee_follower ON user_follows (followee_id, follower_id);
+--rollback DROP INDEX idx_user_follows_followee_follower;
+
+-- changeset kiro:add-user-follows-3
+ALTER TABLE users ADD COLUMN followers_count INTEGER DEFAULT 0 NOT NULL;
+
+COMMENT ON COLUMN users.followers_count IS 'Maintained by follow/unfollow; decides push vs pull timeline delivery';
+--rollback ALTER TABLE users DROP COLUMN followers_count;
@@ -0,0 +1,9 @@
+-- liquibase formatted sql
+
+-- changeset kiro:add-users-email-unique-1
+-- preconditions onFail:MARK_RAN
+-- precondition-sql-check expectedResult:0 SELECT COUNT(*) FROM (SELECT email FROM users GROUP BY email HAVING COUNT(*) > 1) duplicates
+-- email is the natural id of User, resolved through the second-level cache at login;
+-- registration already rejects taken addresses, this makes the database agree
+CREATE UNIQUE INDEX uk_users_email ON users (email);
+--rollback DROP INDEX uk_users_email;
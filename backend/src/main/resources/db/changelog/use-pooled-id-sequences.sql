@@ -0,0 +1,25 @@
+-- liquibase formatted sql
+
+-- changeset kiro:use-pooled-id-sequences-1
+-- IDENTITY ids are only known after each INSERT, so Hibernate cannot batch them. These
+-- sequences step by 50 to match allocationSize on User and Profile: one nextval hands
+-- Hibernate's pooled optimizer a block of 50 ids, and a plain SQL insert that takes
+-- nextval as its default gets the top of a block nobody else will use.
+CREATE SEQUENCE users_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users));
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+--rollback ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+--rollback DROP SEQUENCE users_seq;
+--rollback ALTER TABLE users ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY;
+--rollback SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+
+-- changeset kiro:use-pooled-id-sequences-2
+CREATE SEQUENCE profiles_seq INCREMENT BY 50 OWNED BY profiles.id;
+SELECT setval('profiles_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM profiles));
+ALTER TABLE profiles ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE profiles ALTER COLUMN id SET DEFAULT nextval('profiles_seq');
+--rollback ALTER TABLE profiles ALTER COLUMN id DROP DEFAULT;
+--rollback DROP SEQUENCE profiles_seq;
+--rollback ALTER TABLE profiles ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY;
+--rollback SELECT setval(pg_get_serial_sequence('profiles', 'id'), (SELECT COALESCE(MAX(id), 0) + 1 FROM profiles), false);
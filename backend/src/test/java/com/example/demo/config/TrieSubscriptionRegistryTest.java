@@ -0,0 +1,71 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrieSubscriptionRegistryTest {
+
+    private final TrieSubscriptionRegistry registry = new TrieSubscriptionRegistry();
+
+    @Test
+    void findSubscriptions_MatchesExactDestinationOnly() {
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/conversation.abc"));
+        registry.registerSubscription(subscribe("s2", "sub-1", "/topic/conversation.xyz"));
+
+        MultiValueMap<String, String> result = registry.findSubscriptions(publish("/topic/conversation.abc"));
+
+        assertThat(result).containsOnlyKeys("s1");
+        assertThat(result.get("s1")).containsExactly("sub-1");
+    }
+
+    @Test
+    void findSubscriptions_SupportsRabbitStyleWildcards() {
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/conversation.*"));
+        registry.registerSubscription(subscribe("s2", "sub-1", "/topic/#"));
+        registry.registerSubscription(subscribe("s3", "sub-1", "/topic/typing.*"));
+
+        MultiValueMap<String, String> result = registry.findSubscriptions(publish("/topic/conversation.abc"));
+
+        assertThat(result).containsOnlyKeys("s1", "s2");
+    }
+
+    @Test
+    void unregisterAllSubscriptions_PrunesSessionAndBranches() {
+        registry.registerSubscription(subscribe("s1", "sub-1", "/topic/conversation.abc"));
+        registry.registerSubscription(subscribe("s1", "sub-2", "/queue/messages.7"));
+
+        registry.unregisterAllSubscriptions("s1");
+
+        assertThat(registry.findSubscriptions(publish("/topic/conversation.abc"))).isEmpty();
+        assertThat(registry.findSubscriptions(publish("/queue/messages.7"))).isEmpty();
+        assertThat(registry.sessionCount()).isZero();
+    }
+
+    @Test
+    void tokenize_SplitsOnSlashesAndDots() {
+        assertThat(TrieSubscriptionRegistry.tokenize("/topic/conversation.abc"))
+                .isEqualTo(List.of("topic", "conversation", "abc"));
+    }
+
+    private Message<byte[]> subscribe(String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private Message<byte[]> publish(String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.load;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Presence-storm write benchmark against a running backend. Not part of the regular
+ * build: it only runs when -Dloadtest.url is set.
+ *
+ * <p>Connects one session for each user in [first-user-id, first-user-id + users), drops
+ * them all at once, as a node restart would, then polls Postgres until every one of those
+ * users has a last_seen at or after the disconnect. It reports how long the storm took to
+ * land and the resulting last_seen writes per second. Compare a build from before the
+ * write-behind and sequence ids with the current one against the same data set, or the
+ * current build with JPA_BATCH_SIZE=1 and with the default.
+ *
+ * <pre>
+ * mvn test -Dtest=PresenceStormLoadTest -Dloadtest.url=http://localhost:8080/ws \
+ *     -Dloadtest.jwt-secret=... -Dloadtest.first-user-id=1 -Dloadtest.users=5000 \
+ *     -Dloadtest.jdbc-url=jdbc:postgresql://localhost:5432/chat \
+ *     -Dloadtest.jdbc-user=... -Dloadtest.jdbc-password=...
+ * </pre>
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "loadtest.url", matches = ".+")
+class PresenceStormLoadTest {
+
+    private final String url = System.getProperty("loadtest.url");
+    private final String jwtSecret = System.getProperty("loadtest.jwt-secret");
+    private final long firstUserId = Long.getLong("loadtest.first-user-id", 1L);
+    private final int users = Integer.getInteger("loadtest.users", 1000);
+    private final String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+    private final String jdbcUser = System.getProperty("loadtest.jdbc-user");
+    private final String jdbcPassword = System.getProperty("loadtest.jdbc-password");
+
+    @Test
+    void lastSeenWriteThroughput() throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+
+        List<CompletableFuture<StompSession>> pending = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + token(String.valueOf(firstUserId + i)));
+            pending.add(stompClient.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders,
+                    new StompSessionHandlerAdapter() {
+                    }));
+        }
+
+        List<StompSession> sessions = new ArrayList<>();
+        for (CompletableFuture<StompSession> future : pending) {
+            try {
+                sessions.add(future.get(30, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                // counted as a failed connection
+            }
+        }
+
+        Instant stormStart = Instant.now();
+        long start = System.nanoTime();
+        sessions.forEach(StompSession::disconnect);
+
+        long written = 0;
+        long deadline = System.currentTimeMillis() + 120_000;
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword)) {
+            while (written < sessions.size() && System.currentTimeMillis() < deadline) {
+                written = countSeenSince(connection, stormStart);
+                Thread.sleep(50);
+            }
+        }
+        long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+
+        System.out.printf("sessions: %d/%d%n", sessions.size(), users);
+        System.out.printf("last_seen written: %d/%d in %d ms, %.0f writes/s%n",
+                written, sessions.size(), elapsedMillis, written * 1000.0 / elapsedMillis);
+
+        stompClient.stop();
+    }
+
+    private long countSeenSince(Connection connection, Instant since) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM users WHERE id >= ? AND id < ? AND last_seen >= ?")) {
+            statement.setLong(1, firstUserId);
+            statement.setLong(2, firstUserId + users);
+            statement.setTimestamp(3, Timestamp.from(since));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private String token(String userId) throws Exception {
+        Date now = new Date();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(userId)
+                .issueTime(now)
+                .expirationTime(new Date(now.getTime() + 3_600_000))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        jwt.sign(new MACSigner(jwtSecret.getBytes()));
+        return jwt.serialize();
+    }
+}
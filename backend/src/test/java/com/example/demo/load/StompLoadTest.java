@@ -0,0 +1,157 @@
+package com.example.demo.load;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection-capacity and latency load test against a running backend. Not part of the
+ * regular build: it only runs when -Dloadtest.url is set.
+ *
+ * <p>Compare modes by running it twice against the same data set, once with
+ * VIRTUAL_THREADS_ENABLED=false and once with VIRTUAL_THREADS_ENABLED=true, with the
+ * database slowed down externally (e.g. a toxiproxy latency toxic in front of Mongo and
+ * Postgres). It reports how many sessions connected and the p50/p99 latency from
+ * /app/chat.send to delivery on /topic/conversation.{id}.
+ *
+ * <p>The same run benchmarks the in-process broker against the RabbitMQ relay: start the
+ * backend with WEBSOCKET_BROKER_TYPE=simple, then with WEBSOCKET_BROKER_TYPE=rabbitmq,
+ * and compare the reported latencies.
+ *
+ * <pre>
+ * mvn test -Dtest=StompLoadTest -Dloadtest.url=http://localhost:8080/ws \
+ *     -Dloadtest.jwt-secret=... -Dloadtest.conversation-id=conv_003 -Dloadtest.user-ids=1,2,3
+ * </pre>
+ */
+@Tag("load")
+@EnabledIfSystemProperty(named = "loadtest.url", matches = ".+")
+class StompLoadTest {
+
+    private static final String CONTENT_PREFIX = "loadtest:";
+
+    private final String url = System.getProperty("loadtest.url");
+    private final String jwtSecret = System.getProperty("loadtest.jwt-secret");
+    private final String conversationId = System.getProperty("loadtest.conversation-id");
+    private final List<String> userIds = Arrays.asList(System.getProperty("loadtest.user-ids", "1").split(","));
+    private final int connections = Integer.getInteger("loadtest.connections", 1000);
+    private final int messages = Integer.getInteger("loadtest.messages", 200);
+
+    @Test
+    void connectionCapacityAndDeliveryLatency() throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new StringMessageConverter());
+
+        ConcurrentLinkedQueue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<StompSession>> pending = new ArrayList<>();
+
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + token(userIds.get(i % userIds.size())));
+            pending.add(stompClient.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders,
+                    new StompSessionHandlerAdapter() {
+                    }));
+        }
+
+        List<StompSession> sessions = new ArrayList<>();
+        for (CompletableFuture<StompSession> future : pending) {
+            try {
+                sessions.add(future.get(30, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                // counted as a failed connection
+            }
+        }
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+
+        // Latency is sampled on the first session only so fan-out does not skew the numbers
+        StompSession receiver = sessions.get(0);
+        receiver.subscribe("/topic/conversation." + conversationId, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                String body = (String) payload;
+                int start = body.indexOf(CONTENT_PREFIX);
+                if (start >= 0) {
+                    int end = body.indexOf('"', start);
+                    long sentAt = Long.parseLong(body.substring(start + CONTENT_PREFIX.length(), end));
+                    latenciesNanos.add(System.nanoTime() - sentAt);
+                }
+            }
+        });
+
+        StompSession sender = sessions.get(sessions.size() - 1);
+        StompHeaders sendHeaders = new StompHeaders();
+        sendHeaders.setDestination("/app/chat.send");
+        sendHeaders.setContentType(org.springframework.util.MimeTypeUtils.APPLICATION_JSON);
+        for (int i = 0; i < messages; i++) {
+            sender.send(sendHeaders, "{\"conversationId\":\"" + conversationId + "\",\"content\":\""
+                    + CONTENT_PREFIX + System.nanoTime() + "\"}");
+            Thread.sleep(50);
+        }
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (latenciesNanos.size() < messages && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        List<Long> sorted = new ArrayList<>(latenciesNanos);
+        Collections.sort(sorted);
+
+        System.out.printf("connections: %d/%d in %d ms%n", sessions.size(), connections, connectMillis);
+        System.out.printf("delivered: %d/%d, p50: %d ms, p99: %d ms%n",
+                sorted.size(), messages, percentileMillis(sorted, 50), percentileMillis(sorted, 99));
+
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+    }
+
+    private long percentileMillis(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return -1;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(index, 0)));
+    }
+
+    private String token(String userId) throws Exception {
+        Date now = new Date();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(userId)
+                .issueTime(now)
+                .expirationTime(new Date(now.getTime() + 3_600_000))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        jwt.sign(new MACSigner(jwtSecret.getBytes()));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.AuthorResponse;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.repository.jpa.ProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorCacheTest {
+
+    @Mock
+    private ProfileRepository profileRepository;
+
+    private AuthorCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AuthorCache(profileRepository, 60_000, 100);
+    }
+
+    @Test
+    void getAll_LoadsMissingAuthorsInOneQueryAndCachesThem() {
+        when(profileRepository.findAuthors(List.of(1L, 2L), EntityStatus.ACTIVE))
+                .thenReturn(List.of(view(1L, "Alice")));
+
+        Map<Long, AuthorResponse> first = cache.getAll(List.of(1L, 2L, 1L));
+        Map<Long, AuthorResponse> second = cache.getAll(List.of(2L, 1L));
+
+        assertThat(first).containsOnlyKeys(1L);
+        assertThat(first.get(1L).getFullName()).isEqualTo("Alice");
+        assertThat(second).containsOnlyKeys(1L);
+        verify(profileRepository, times(1)).findAuthors(List.of(1L, 2L), EntityStatus.ACTIVE);
+    }
+
+    @Test
+    void evict_ReloadsOnNextLookup() {
+        when(profileRepository.findAuthors(List.of(1L), EntityStatus.ACTIVE))
+                .thenReturn(List.of(view(1L, "Alice")));
+
+        cache.getAll(List.of(1L));
+        cache.evict(1L);
+        cache.getAll(List.of(1L));
+
+        verify(profileRepository, times(2)).findAuthors(List.of(1L), EntityStatus.ACTIVE);
+    }
+
+    @Test
+    void evictAfterCommit_KeepsEntryUntilTransactionCommits() {
+        when(profileRepository.findAuthors(List.of(1L), EntityStatus.ACTIVE))
+                .thenReturn(List.of(view(1L, "Alice")));
+        cache.getAll(List.of(1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evictAfterCommit(1L);
+            assertThat(cache.size()).isEqualTo(1);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void expandsAuthor_MatchesCommaSeparatedValues() {
+        assertThat(AuthorCache.expandsAuthor(null)).isFalse();
+        assertThat(AuthorCache.expandsAuthor("media")).isFalse();
+        assertThat(AuthorCache.expandsAuthor("media, author")).isTrue();
+    }
+
+    private ProfileRepository.AuthorView view(Long id, String fullName) {
+        return new ProfileRepository.AuthorView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getEmail() {
+                return "user" + id + "@example.com";
+            }
+
+            @Override
+            public String getFullName() {
+                return fullName;
+            }
+
+            @Override
+            public String getAvatarUrl() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Conversation;
+import com.example.demo.document.Message;
+import com.example.demo.dto.response.SyncResponse;
+import com.example.demo.util.KeysetCursor;
+import com.example.demo.util.SyncCursor;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatSyncServiceTest {
+
+    private static final Instant SINCE = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ChatService chatService;
+
+    @Mock
+    private ConversationMemberService conversationMemberService;
+
+    @InjectMocks
+    private ChatSyncService chatSyncService;
+
+    @Test
+    void sync_NothingCapped_NextPassStartsAtQueryTimeMinusSkew() {
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class)))
+                .thenReturn(List.of(conversation(SINCE.plusSeconds(1))));
+        when(mongoTemplate.find(any(Query.class), eq(Message.class)))
+                .thenReturn(List.of(message(SINCE.plusSeconds(1))));
+
+        Instant before = Instant.now().minusSeconds(5);
+        SyncResponse response = chatSyncService.sync(1L, SyncCursor.after(SINCE).encode(), 20);
+
+        SyncCursor next = SyncCursor.decode(response.getCursor());
+        assertThat(response.isHasMore()).isFalse();
+        assertThat(next.since()).isAfterOrEqualTo(before);
+        assertThat(next.conversation()).isNull();
+    }
+
+    @Test
+    void sync_ConversationsCapped_ResumesAfterLastReturnedConversation() {
+        List<Conversation> changed = new ArrayList<>();
+        IntStream.rangeClosed(1, 101).forEach(i -> changed.add(conversation(SINCE.plusSeconds(1))));
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class))).thenReturn(changed);
+        when(mongoTemplate.find(any(Query.class), eq(Message.class))).thenReturn(List.of());
+
+        SyncResponse response = chatSyncService.sync(1L, SyncCursor.after(SINCE).encode(), 20);
+
+        SyncCursor next = SyncCursor.decode(response.getCursor());
+        assertThat(response.isHasMore()).isTrue();
+        assertThat(response.getConversations()).hasSize(100);
+        assertThat(next.since()).isEqualTo(SINCE);
+        assertThat(next.conversation()).isEqualTo(new KeysetCursor(SINCE.plusSeconds(1), changed.get(99).getId()));
+    }
+
+    @Test
+    void sync_MessagesCappedWithinOneChangedAt_ResumesAfterLastMessageId() {
+        Conversation conversation = conversation(SINCE.plusSeconds(10));
+        Instant bulk = SINCE.plusSeconds(2);
+        List<Message> tombstones = List.of(message(bulk), message(bulk), message(bulk));
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class))).thenReturn(List.of(conversation));
+        when(mongoTemplate.find(any(Query.class), eq(Message.class))).thenReturn(tombstones);
+
+        SyncResponse response = chatSyncService.sync(1L, SyncCursor.after(SINCE).encode(), 2);
+
+        SyncCursor next = SyncCursor.decode(response.getCursor());
+        assertThat(response.isHasMore()).isTrue();
+        assertThat(response.getConversations().get(0).isHasMoreMessages()).isTrue();
+        assertThat(next.messagesOf()).isEqualTo(conversation.getId());
+        assertThat(next.messages()).isEqualTo(new KeysetCursor(bulk, tombstones.get(1).getId()));
+        assertThat(next.conversation()).isNull();
+    }
+
+    @Test
+    void sync_FirstPageOfPass_ReturnsLargeGroupReadPositions() {
+        Map<String, Instant> positions = Map.of("large-1", SINCE.plusSeconds(3));
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class))).thenReturn(List.of());
+        when(conversationMemberService.readPositionsSince(1L, SINCE)).thenReturn(positions);
+
+        SyncResponse response = chatSyncService.sync(1L, SyncCursor.after(SINCE).encode(), 20);
+
+        assertThat(response.getReadPositions()).isEqualTo(positions);
+    }
+
+    @Test
+    void sync_ResumingInsideConversation_ReadsMessagesAfterTheCursor() {
+        Conversation conversation = conversation(SINCE.plusSeconds(10));
+        String lastId = new ObjectId().toHexString();
+        SyncCursor cursor = new SyncCursor(SINCE, null, conversation.getId(),
+                new KeysetCursor(SINCE.plusSeconds(2), lastId));
+        when(mongoTemplate.find(any(Query.class), eq(Conversation.class))).thenReturn(List.of(conversation));
+        when(mongoTemplate.find(any(Query.class), eq(Message.class))).thenReturn(List.of());
+
+        chatSyncService.sync(1L, cursor.encode(), 2);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Message.class));
+        assertThat(query.getValue().getQueryObject()).containsKey("$or");
+    }
+
+    private Conversation conversation(Instant changedAt) {
+        Conversation conversation = new Conversation();
+        conversation.setId(new ObjectId().toHexString());
+        conversation.setChangedAt(changedAt);
+        return conversation;
+    }
+
+    private Message message(Instant changedAt) {
+        Message message = new Message();
+        message.setId(new ObjectId().toHexString());
+        message.setChangedAt(changedAt);
+        return message;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Comment;
+import com.example.demo.dto.request.CreateCommentRequest;
+import com.example.demo.dto.response.CommentPageResponse;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.mapper.CommentMapper;
+import com.example.demo.repository.mongo.CommentRepository;
+import com.example.demo.util.KeysetCursor;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommentServiceTest {
+
+    private static final Instant BASE = Instant.parse("2026-10-18T10:00:00Z");
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private CommentMapper commentMapper;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private CommentCountBuffer commentCountBuffer;
+
+    @Mock
+    private AuthorCache authorCache;
+
+    @InjectMocks
+    private CommentService commentService;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getCommentsByPostId_FullPage_ReturnsCursorOfLastComment() {
+        Comment first = comment(new ObjectId().toHexString(), null, 1);
+        Comment second = comment(new ObjectId().toHexString(), null, 2);
+        Comment third = comment(new ObjectId().toHexString(), null, 3);
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of(first, second, third));
+
+        CommentPageResponse page = commentService.getCommentsByPostId("p1", null, 2, false);
+
+        assertThat(page.getNextCursor()).isEqualTo(new KeysetCursor(second.getCreatedAt(), second.getId()).encode());
+        verify(commentMapper).toResponseList(List.of(first, second));
+    }
+
+    @Test
+    void getCommentsByPostId_LastPage_HasNoCursor() {
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class)))
+                .thenReturn(List.of(comment(new ObjectId().toHexString(), null, 1)));
+
+        CommentPageResponse page = commentService.getCommentsByPostId("p1", null, 2, false);
+
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getCommentsByPostId_WithCursor_StartsAfterIt() {
+        String cursor = new KeysetCursor(BASE, new ObjectId().toHexString()).encode();
+        when(mongoTemplate.find(any(Query.class), eq(Comment.class))).thenReturn(List.of());
+
+        commentService.getCommentsByPostId("p1", cursor, 2, false);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Comment.class));
+        assertThat(query.getValue().getQueryObject()).containsKey("$or");
+        assertThat(query.getValue().getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void getCommentsByPostId_CursorWithInvalidId_Throws() {
+        String cursor = new KeysetCursor(BASE, "not-an-object-id").encode();
+
+        assertThatThrownBy(() -> commentService.getCommentsByPostId("p1", cursor, 2, false))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_CURSOR);
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void createComment_ReplyToReply_JoinsTopLevelThread() {
+        authenticate(7L);
+        when(commentRepository.findByIdAndStatus("r1", EntityStatus.ACTIVE))
+                .thenReturn(Optional.of(comment("r1", "c1", 1)));
+        when(commentMapper.toDocument(any(CreateCommentRequest.class))).thenReturn(new Comment());
+        when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        commentService.createComment(request("p1", "r1"));
+
+        ArgumentCaptor<Comment> saved = ArgumentCaptor.forClass(Comment.class);
+        verify(commentRepository).save(saved.capture());
+        assertThat(saved.getValue().getParentId()).isEqualTo("c1");
+        verify(commentCountBuffer).adjustReplies("c1", 1);
+    }
+
+    @Test
+    void createComment_ParentOnAnotherPost_Throws() {
+        authenticate(7L);
+        when(commentRepository.findByIdAndStatus("c1", EntityStatus.ACTIVE))
+                .thenReturn(Optional.of(comment("c1", null, 1)));
+        when(commentMapper.toDocument(any(CreateCommentRequest.class))).thenReturn(new Comment());
+
+        assertThatThrownBy(() -> commentService.createComment(request("p2", "c1")))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.COMMENT_NOT_FOUND);
+
+        verify(commentRepository, never()).save(any(Comment.class));
+    }
+
+    private void authenticate(Long userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId.toString(), null, List.of()));
+    }
+
+    private CreateCommentRequest request(String postId, String parentId) {
+        CreateCommentRequest request = new CreateCommentRequest();
+        request.setPostId(postId);
+        request.setParentId(parentId);
+        request.setContent("hello");
+        return request;
+    }
+
+    /** A comment on post p1 */
+    private Comment comment(String id, String parentId, int second) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setPostId("p1");
+        comment.setParentId(parentId);
+        comment.setUserId(1);
+        comment.setCreatedAt(BASE.plusSeconds(second));
+        return comment;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Post;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CounterDeltaBufferTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private CounterDeltaBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new CounterDeltaBuffer(mongoTemplate, Post.class, "commentsCount");
+    }
+
+    @Test
+    void flush_IncrementsWithIncAndClampsDecrementsAtZero() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulkOperations);
+
+        buffer.add("p1", 1);
+        buffer.add("p1", 1);
+        buffer.add("p2", -3);
+        buffer.flush();
+
+        verify(bulkOperations).updateOne(any(Query.class), eq(new Update().inc("commentsCount", 2)));
+        verify(bulkOperations).updateOne(any(Query.class), any(AggregationUpdate.class));
+        verify(bulkOperations).execute();
+        assertThat(buffer.pending()).isZero();
+    }
+
+    @Test
+    void flush_DeltasThatCancelOut_SkipWrite() {
+        buffer.add("p1", 1);
+        buffer.add("p1", -1);
+        buffer.flush();
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Post.class));
+        assertThat(buffer.pending()).isZero();
+    }
+
+    @Test
+    void flush_BulkErrors_RequeueOnlyTheFailedDeltas() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulkOperations);
+        BulkOperationException failure = mock(BulkOperationException.class);
+        when(failure.getErrors()).thenReturn(List.of(new BulkWriteError(11600, "interrupted", new BsonDocument(), 0)));
+        when(bulkOperations.execute()).thenThrow(failure).thenReturn(null);
+
+        buffer.add("p1", 2);
+        buffer.add("p2", 5);
+        buffer.flush();
+
+        assertThat(buffer.pending()).isEqualTo(1);
+
+        buffer.flush();
+
+        // Whichever delta failed comes back once; the applied one does not
+        verify(bulkOperations, times(3)).updateOne(any(Query.class), any(Update.class));
+        assertThat(buffer.pending()).isZero();
+    }
+
+    @Test
+    void flush_AmbiguousFailure_DropsBatchRatherThanDoubleCounting() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new RuntimeException("socket timeout"));
+
+        buffer.add("p1", 2);
+        buffer.flush();
+
+        assertThat(buffer.pending()).isZero();
+    }
+}
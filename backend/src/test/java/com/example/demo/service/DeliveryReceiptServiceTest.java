@@ -0,0 +1,176 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Conversation;
+import com.example.demo.document.Message;
+import com.example.demo.dto.request.DeliveryAckRequest;
+import com.example.demo.dto.response.MessageReceiptEvent;
+import com.example.demo.enums.DeliveryStatus;
+import com.mongodb.bulk.BulkWriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryReceiptServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private MessageTailCache messageTailCache;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    @InjectMocks
+    private DeliveryReceiptService deliveryReceiptService;
+
+    @BeforeEach
+    void setUp() {
+        Conversation conversation = new Conversation();
+        conversation.setId("conv-1");
+        conversation.setParticipantIds(List.of(1L, 2L, 3L));
+        lenient().when(mongoTemplate.find(any(Query.class), eq(Conversation.class)))
+                .thenReturn(List.of(conversation));
+    }
+
+    @Test
+    void flush_coalescesAcksPerConversationAndUser() {
+        when(mongoTemplate.find(any(Query.class), eq(Message.class))).thenReturn(List.of(
+                message("m1", 2L, 3L), message("m2", 2L), message("m3", 2L)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(4);
+
+        deliveryReceiptService.acknowledge(2L, ack("conv-1", "m1", "m2"));
+        deliveryReceiptService.acknowledge(2L, ack("conv-1", "m2", "m3"));
+        deliveryReceiptService.acknowledge(3L, ack("conv-1", "m1"));
+        assertThat(deliveryReceiptService.pendingGroupCount()).isEqualTo(2);
+
+        deliveryReceiptService.flush();
+
+        verify(bulkOperations, times(2)).updateMulti(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(1)).execute();
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/receipts.conv-1"), any(List.class));
+        verify(messageTailCache, times(2)).publishReceipt(any());
+        assertThat(deliveryReceiptService.pendingGroupCount()).isZero();
+    }
+
+    @Test
+    void flush_publishesOnlyIdsStillSentForTheAckingUser() {
+        Message alreadyRead = message("m2");
+        alreadyRead.getStatusList().add(Message.MessageStatus.builder()
+                .userId(2L).status(DeliveryStatus.READ).build());
+        when(mongoTemplate.find(any(Query.class), eq(Message.class)))
+                .thenReturn(List.of(message("m1", 2L), alreadyRead));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(1);
+
+        deliveryReceiptService.acknowledge(2L, ack("conv-1", "m1", "m2", "unknown"));
+        deliveryReceiptService.flush();
+
+        ArgumentCaptor<MessageReceiptEvent> receipt = ArgumentCaptor.forClass(MessageReceiptEvent.class);
+        verify(messageTailCache).publishReceipt(receipt.capture());
+        assertThat(receipt.getValue().getMessageIds()).containsExactly("m1");
+        assertThat(receipt.getValue().getMessageCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void flush_nothingModified_publishesNothing() {
+        when(mongoTemplate.find(any(Query.class), eq(Message.class))).thenReturn(List.of(message("m1", 2L)));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(0);
+
+        deliveryReceiptService.acknowledge(2L, ack("conv-1", "m1"));
+        deliveryReceiptService.flush();
+
+        verifyNoInteractions(messagingTemplate, messageTailCache);
+    }
+
+    @Test
+    void flush_noIdStillSent_skipsWrite() {
+        when(mongoTemplate.find(any(Query.class), eq(Message.class))).thenReturn(List.of(message("m1")));
+
+        deliveryReceiptService.acknowledge(2L, ack("conv-1", "m1"));
+        deliveryReceiptService.flush();
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Message.class));
+        verifyNoInteractions(messagingTemplate, messageTailCache);
+    }
+
+    @Test
+    void flush_nonParticipantAck_isDroppedWithOneConversationRead() {
+        deliveryReceiptService.acknowledge(9L, ack("conv-1", "m1"));
+        deliveryReceiptService.acknowledge(8L, ack("conv-1", "m2"));
+        deliveryReceiptService.flush();
+
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Conversation.class));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Message.class));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Message.class));
+        assertThat(deliveryReceiptService.pendingGroupCount()).isZero();
+    }
+
+    @Test
+    void flush_withoutPendingAcks_doesNothing() {
+        deliveryReceiptService.flush();
+
+        verifyNoInteractions(mongoTemplate, messagingTemplate);
+    }
+
+    @Test
+    void acknowledge_ignoresEmptyAcks() {
+        deliveryReceiptService.acknowledge(2L, ack("conv-1"));
+
+        assertThat(deliveryReceiptService.pendingGroupCount()).isZero();
+    }
+
+    /** A message in conv-1 that is still SENT for each of the given users */
+    private Message message(String id, Long... sentTo) {
+        Message message = new Message();
+        message.setId(id);
+        message.setConversationId("conv-1");
+        message.setStatusList(new ArrayList<>());
+        for (Long userId : sentTo) {
+            message.getStatusList().add(Message.MessageStatus.builder()
+                    .userId(userId).status(DeliveryStatus.SENT).build());
+        }
+        return message;
+    }
+
+    private DeliveryAckRequest ack(String conversationId, String... messageIds) {
+        DeliveryAckRequest request = new DeliveryAckRequest();
+        request.setConversationId(conversationId);
+        request.setMessageIds(List.of(messageIds));
+        return request;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.entities.User;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.repository.jpa.UserFollowRepository;
+import com.example.demo.repository.jpa.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FollowServiceTest {
+
+    @Mock
+    private UserFollowRepository userFollowRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @InjectMocks
+    private FollowService followService;
+
+    @Test
+    void follow_NewEdge_IncrementsCountAndBackfills() {
+        when(userRepository.findByIdAndStatus(2L, EntityStatus.ACTIVE)).thenReturn(Optional.of(new User()));
+        when(userFollowRepository.insertIfAbsent(any(), any(), any())).thenReturn(1);
+
+        followService.follow(1L, 2L);
+
+        verify(userRepository).adjustFollowersCount(2L, 1);
+        verify(timelineService).backfill(1L, 2L);
+    }
+
+    @Test
+    void follow_ExistingEdge_ChangesNothing() {
+        when(userRepository.findByIdAndStatus(2L, EntityStatus.ACTIVE)).thenReturn(Optional.of(new User()));
+        when(userFollowRepository.insertIfAbsent(any(), any(), any())).thenReturn(0);
+
+        followService.follow(1L, 2L);
+
+        verify(userRepository, never()).adjustFollowersCount(anyLong(), anyInt());
+        verifyNoInteractions(timelineService);
+    }
+
+    @Test
+    void follow_Self_Throws() {
+        assertThatThrownBy(() -> followService.follow(1L, 1L))
+                .isInstanceOf(AppException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.CANNOT_FOLLOW_SELF);
+    }
+
+    @Test
+    void unfollow_RemovedEdge_HandsNewCountToTimelines() {
+        when(userFollowRepository.deleteEdge(1L, 2L)).thenReturn(1);
+        when(userRepository.adjustFollowersCount(2L, -1)).thenReturn(9999);
+
+        followService.unfollow(1L, 2L);
+
+        verify(timelineService).removeAuthor(1L, 2L);
+        verify(timelineService).followersDecreased(2L, 9999);
+    }
+
+    @Test
+    void unfollow_MissingEdge_ChangesNothing() {
+        when(userFollowRepository.deleteEdge(1L, 2L)).thenReturn(0);
+
+        followService.unfollow(1L, 2L);
+
+        verify(userRepository, never()).adjustFollowersCount(anyLong(), anyInt());
+        verifyNoInteractions(timelineService);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.AppException;
+import com.example.demo.exception.ErrorCode;
+import com.example.demo.repository.mongo.ConversationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class MessageSearchServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private ChatService chatService;
+
+    @InjectMocks
+    private MessageSearchService messageSearchService;
+
+    @Test
+    void searchTextOf_DecodesSanitizerEntitiesAndLowercases() {
+        assertThat(MessageSearchService.searchTextOf("Don&#x27;t  open &lt;B&gt; &amp; Https:&#x2F;&#x2F;x"))
+                .isEqualTo("don't open <b> & https://x");
+    }
+
+    @Test
+    void searchTextOf_BlankContent_ReturnsNull() {
+        assertThat(MessageSearchService.searchTextOf("   ")).isNull();
+        assertThat(MessageSearchService.searchTextOf(null)).isNull();
+    }
+
+    @Test
+    void indexedTextOf_MediaOnlyMessage_IsEmptyRatherThanMissing() {
+        assertThat(MessageSearchService.indexedTextOf(null)).isEmpty();
+        assertThat(MessageSearchService.indexedTextOf("Hi &amp; bye")).isEqualTo("hi & bye");
+    }
+
+    @Test
+    void search_TooShortQuery_ThrowsBeforeQuerying() {
+        assertThatThrownBy(() -> messageSearchService.search(1L, " a ", null, null, 20))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_SEARCH_QUERY);
+
+        verifyNoInteractions(mongoTemplate, conversationRepository);
+    }
+
+    @Test
+    void search_WithoutConversation_ThrowsBeforeQuerying() {
+        assertThatThrownBy(() -> messageSearchService.search(1L, "hello", " ", null, 20))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.SEARCH_CONVERSATION_REQUIRED);
+
+        verifyNoInteractions(mongoTemplate, conversationRepository);
+    }
+}
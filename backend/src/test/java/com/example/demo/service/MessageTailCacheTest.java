@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.internal.MessageTailEvent;
+import com.example.demo.dto.response.MessageReceiptEvent;
+import com.example.demo.dto.response.MessageResponse;
+import com.example.demo.dto.response.MessageStatusResponse;
+import com.example.demo.enums.DeliveryStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class MessageTailCacheTest {
+
+    private static final Instant BASE = Instant.parse("2026-10-18T10:00:00Z");
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private MessageTailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MessageTailCache(rabbitTemplate, new SimpleMeterRegistry(), true, 3, 1_000_000);
+    }
+
+    @Test
+    void latest_NotResident_Misses() {
+        assertThat(cache.latest("conv-1", 2)).isEmpty();
+    }
+
+    @Test
+    void latest_ServesNewestMessagesOldestFirst() {
+        load(List.of(message("m1", 1), message("m2", 2)), true);
+
+        assertThat(ids(cache.latest("conv-1", 50).orElseThrow())).containsExactly("m1", "m2");
+        assertThat(ids(cache.latest("conv-1", 1).orElseThrow())).containsExactly("m2");
+    }
+
+    @Test
+    void fill_ReplaysEventsReceivedWhileLoading() {
+        MessageTailCache.Reservation reservation = cache.reserve("conv-1").orElseThrow();
+        cache.onEvent(upsert(message("m4", 4)));
+        cache.onEvent(MessageTailEvent.builder()
+                .kind(MessageTailEvent.Kind.REMOVE).conversationId("conv-1").messageId("m1").build());
+
+        cache.fill(reservation, List.of(message("m1", 1), message("m2", 2), message("m3", 3)), true);
+
+        assertThat(ids(cache.latest("conv-1", 3).orElseThrow())).containsExactly("m2", "m3", "m4");
+    }
+
+    @Test
+    void onEvent_TrimsToTailSizeAndStopsServingLongerPages() {
+        load(List.of(message("m1", 1), message("m2", 2), message("m3", 3)), true);
+
+        cache.onEvent(upsert(message("m4", 4)));
+
+        assertThat(ids(cache.latest("conv-1", 3).orElseThrow())).containsExactly("m2", "m3", "m4");
+        assertThat(cache.latest("conv-1", 4)).isEmpty();
+        assertThat(ids(cache.after("conv-1", "m2", 10).orElseThrow())).containsExactly("m3", "m4");
+        assertThat(cache.after("conv-1", "m1", 10)).isEmpty();
+    }
+
+    @Test
+    void onEvent_ReceiptReplacesMessageWithUpdatedCopy() {
+        MessageResponse original = message("m1", 1);
+        load(List.of(original), true);
+
+        cache.onEvent(MessageTailEvent.builder()
+                .kind(MessageTailEvent.Kind.RECEIPT)
+                .conversationId("conv-1")
+                .receipt(MessageReceiptEvent.builder()
+                        .conversationId("conv-1").userId(2L).status(DeliveryStatus.READ).timestamp(BASE.plusSeconds(1)).build())
+                .build());
+
+        MessageResponse cached = cache.latest("conv-1", 1).orElseThrow().get(0);
+        assertThat(cached).isNotSameAs(original);
+        assertThat(cached.getStatusList().get(0).getStatus()).isEqualTo(DeliveryStatus.READ);
+        assertThat(original.getStatusList().get(0).getStatus()).isEqualTo(DeliveryStatus.SENT);
+    }
+
+    @Test
+    void onEvent_ReceiptWithoutIds_OnlyCoversMessagesSentUpToItsTimestamp() {
+        load(List.of(message("m1", 1), message("m2", 2)), true);
+
+        cache.onEvent(MessageTailEvent.builder()
+                .kind(MessageTailEvent.Kind.RECEIPT)
+                .conversationId("conv-1")
+                .receipt(MessageReceiptEvent.builder()
+                        .conversationId("conv-1").userId(2L).status(DeliveryStatus.READ).timestamp(BASE.plusSeconds(1)).build())
+                .build());
+
+        List<MessageResponse> cached = cache.latest("conv-1", 2).orElseThrow();
+        assertThat(cached.get(0).getStatusList().get(0).getStatus()).isEqualTo(DeliveryStatus.READ);
+        assertThat(cached.get(1).getStatusList().get(0).getStatus()).isEqualTo(DeliveryStatus.SENT);
+    }
+
+    @Test
+    void fill_OverBudget_EvictsLeastRecentlyRead() {
+        cache = new MessageTailCache(rabbitTemplate, new SimpleMeterRegistry(), true, 3,
+                MessageTailCache.estimateBytes(message("m1", 1)) * 3 / 2);
+        load(List.of(message("m1", 1)), true);
+
+        cache.fill(cache.reserve("conv-2").orElseThrow(), List.of(message("m2", 2)), true);
+
+        assertThat(cache.residentConversations()).isEqualTo(1);
+        assertThat(cache.latest("conv-1", 1)).isEmpty();
+    }
+
+    @Test
+    void fill_AfterReservationWasEvictedAndReplaced_LeavesNewTailAlone() {
+        MessageTailCache.Reservation stale = cache.reserve("conv-1").orElseThrow();
+        cache.evict("conv-1");
+        MessageTailCache.Reservation current = cache.reserve("conv-1").orElseThrow();
+
+        cache.fill(stale, List.of(message("m1", 1)), true);
+        cache.evict(stale);
+        cache.fill(current, List.of(message("m2", 2)), true);
+        cache.fill(current, List.of(message("m3", 3)), true);
+
+        assertThat(ids(cache.latest("conv-1", 3).orElseThrow())).containsExactly("m2");
+    }
+
+    private void load(List<MessageResponse> messages, boolean complete) {
+        cache.fill(cache.reserve("conv-1").orElseThrow(), messages, complete);
+    }
+
+    private MessageTailEvent upsert(MessageResponse message) {
+        return MessageTailEvent.builder()
+                .kind(MessageTailEvent.Kind.UPSERT)
+                .conversationId(message.getConversationId())
+                .message(message)
+                .build();
+    }
+
+    private MessageResponse message(String id, int second) {
+        MessageStatusResponse status = new MessageStatusResponse();
+        status.setUserId(2L);
+        status.setStatus(DeliveryStatus.SENT);
+
+        MessageResponse message = new MessageResponse();
+        message.setId(id);
+        message.setConversationId("conv-1");
+        message.setSenderId(1L);
+        message.setContent("hello " + id);
+        message.setSentAt(BASE.plusSeconds(second));
+        message.setVersion((long) second);
+        message.setStatusList(List.of(status));
+        return message;
+    }
+
+    private List<String> ids(List<MessageResponse> messages) {
+        return messages.stream().map(MessageResponse::getId).toList();
+    }
+}
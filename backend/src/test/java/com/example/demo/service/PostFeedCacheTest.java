@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.PostFeedResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostFeedCacheTest {
+
+    private final PostFeedCache cache = new PostFeedCache(60_000, 2);
+
+    @Test
+    void get_FirstPage_LoadsOnceWithinTtl() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<PostFeedResponse> loader = counting(loads, "c1");
+
+        cache.get(null, 20, loader);
+        cache.get(null, 20, loader);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_FollowsCachedCursorsUpToConfiguredDepth() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(null, 20, counting(loads, "c1"));
+        cache.get("c1", 20, counting(loads, "c2"));
+        cache.get("c1", 20, counting(loads, "c2"));
+        cache.get("c2", 20, counting(loads, "c3"));
+        cache.get("c2", 20, counting(loads, "c3"));
+
+        // page 0 and page 1 cached, page 2 is past cached-pages and always loads
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void get_UnknownCursor_BypassesCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("forged", 20, counting(loads, null));
+        cache.get("forged", 20, counting(loads, null));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidate_DropsCachedPages() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(null, 20, counting(loads, "c1"));
+        cache.invalidate();
+        cache.get(null, 20, counting(loads, "c1"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Supplier<PostFeedResponse> counting(AtomicInteger loads, String nextCursor) {
+        return () -> {
+            loads.incrementAndGet();
+            return PostFeedResponse.builder().posts(List.of()).nextCursor(nextCursor).build();
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Post;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostLikeCounterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private PostLikeCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new PostLikeCounter(mongoTemplate, 2);
+    }
+
+    @Test
+    void add_ColdPost_IncrementsDirectly() {
+        counter.add("p1", 1);
+        counter.add("p1", 1);
+
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(Post.class));
+        assertThat(counter.pendingPosts()).isZero();
+    }
+
+    @Test
+    void add_HotPost_BuffersUntilFlush() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulkOperations);
+
+        for (int i = 0; i < 5; i++) {
+            counter.add("p1", 1);
+        }
+        counter.add("p1", -1);
+
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(Post.class));
+        assertThat(counter.pendingPosts()).isEqualTo(1);
+
+        counter.flush();
+
+        verify(bulkOperations).updateOne(any(Query.class), eq(new Update().inc("likes", 2)));
+        verify(bulkOperations).execute();
+        assertThat(counter.pendingPosts()).isZero();
+    }
+
+    @Test
+    void flush_ResetsHotnessForNextInterval() {
+        counter.add("p1", 1);
+        counter.add("p1", 1);
+        counter.flush();
+        counter.add("p1", 1);
+
+        verify(mongoTemplate, times(3)).updateFirst(any(Query.class), any(Update.class), eq(Post.class));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Post.class));
+    }
+}
@@ -41,6 +41,9 @@ class ProfileServiceTest {
     @Mock
     private ProfileMapper profileMapper;
 
+    @Mock
+    private AuthorCache authorCache;
+
     @InjectMocks
     private ProfileService profileService;
 
@@ -119,6 +122,7 @@ class ProfileServiceTest {
         assertThat(result).isNotNull();
         verify(profileMapper).updateEntityFromRequest(updateRequest, profile);
         verify(profileRepository).save(profile);
+        verify(authorCache).evictAfterCommit(user.getId());
     }
 
     @Test
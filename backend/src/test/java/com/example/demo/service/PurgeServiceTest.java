@@ -0,0 +1,115 @@
+package com.example.demo.service;
+
+import com.example.demo.document.PurgeProgress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PurgeServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    private final List<Integer> rows = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoTemplate.save(any(PurgeProgress.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jobLockService.tryAcquire(eq(PurgeService.LOCK_NAME), any())).thenReturn(true);
+        IntStream.range(0, 25).forEach(rows::add);
+    }
+
+    @Test
+    void purge_DeletesInBoundedBatchesUntilDrained() {
+        PurgeService service = service(10, 100);
+
+        service.purge();
+
+        assertThat(rows).isEmpty();
+        assertThat(batchSizes).containsExactly(10, 10, 5);
+        verify(jobLockService).release(PurgeService.LOCK_NAME);
+    }
+
+    @Test
+    void purge_BatchBudgetExhausted_LeavesRunResumable() {
+        PurgeService service = service(10, 2);
+
+        service.purge();
+
+        assertThat(rows).hasSize(5);
+        verify(mongoTemplate, never()).save(argThat((PurgeProgress p) -> p.getFinishedAt() != null));
+    }
+
+    @Test
+    void purge_UnfinishedRun_ResumesWithSameCutoff() {
+        Instant cutoff = Instant.parse("2026-10-01T00:00:00Z");
+        when(mongoTemplate.findById("test", PurgeProgress.class)).thenReturn(PurgeProgress.builder()
+                .id("test").cutoff(cutoff).deleted(40).startedAt(cutoff).build());
+        List<Instant> cutoffs = new ArrayList<>();
+        PurgeService service = new PurgeService(mongoTemplate, jobLockService, List.of(PurgeTarget.<Integer>of("test",
+                (c, limit) -> {
+                    cutoffs.add(c);
+                    return List.of();
+                },
+                ids -> 0L)));
+        configure(service, 10, 100);
+
+        service.purge();
+
+        assertThat(cutoffs).containsExactly(cutoff);
+    }
+
+    @Test
+    void purge_LockHeldElsewhere_DoesNothing() {
+        when(jobLockService.tryAcquire(eq(PurgeService.LOCK_NAME), any())).thenReturn(false);
+
+        service(10, 100).purge();
+
+        assertThat(rows).hasSize(25);
+        verify(jobLockService, never()).release(any());
+    }
+
+    private PurgeService service(int batchSize, int maxBatches) {
+        PurgeService service = new PurgeService(mongoTemplate, jobLockService, List.of(PurgeTarget.<Integer>of("test",
+                (cutoff, limit) -> new ArrayList<>(rows.subList(0, Math.min(limit, rows.size()))),
+                ids -> {
+                    batchSizes.add(ids.size());
+                    rows.removeAll(ids);
+                    return (long) ids.size();
+                })));
+        configure(service, batchSize, maxBatches);
+        return service;
+    }
+
+    private void configure(PurgeService service, int batchSize, int maxBatches) {
+        ReflectionTestUtils.setField(service, "retention", Duration.ofDays(7));
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        ReflectionTestUtils.setField(service, "batchPause", Duration.ZERO);
+        ReflectionTestUtils.setField(service, "maxBatchesPerRun", maxBatches);
+        ReflectionTestUtils.setField(service, "lockLease", Duration.ofMinutes(5));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.document.Conversation;
+import com.example.demo.dto.internal.TypingIndicator;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.repository.mongo.ConversationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TypingIndicatorServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TypingIndicatorService typingIndicatorService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        typingIndicatorService = new TypingIndicatorService(
+                messagingTemplate, conversationRepository, meterRegistry, 60_000, 60_000);
+    }
+
+    @Test
+    void onTyping_keystrokeBurst_relaysSingleStartEvent() {
+        when(conversationRepository.findByIdAndStatus("conv-1", EntityStatus.ACTIVE))
+                .thenReturn(Optional.of(conversation(1L, 2L)));
+
+        for (int i = 0; i < 20; i++) {
+            typingIndicatorService.onTyping(1L, indicator("conv-1", true));
+        }
+
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/typing.conv-1"), any(TypingIndicator.class));
+        verify(conversationRepository, times(1)).findByIdAndStatus("conv-1", EntityStatus.ACTIVE);
+        assertThat(meterRegistry.counter("chat.typing.relayed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("chat.typing.suppressed").count()).isEqualTo(19);
+    }
+
+    @Test
+    void onTyping_stopAfterStart_relaysStopEvent() {
+        when(conversationRepository.findByIdAndStatus("conv-1", EntityStatus.ACTIVE))
+                .thenReturn(Optional.of(conversation(1L, 2L)));
+
+        typingIndicatorService.onTyping(1L, indicator("conv-1", true));
+        typingIndicatorService.onTyping(1L, indicator("conv-1", false));
+
+        ArgumentCaptor<TypingIndicator> captor = ArgumentCaptor.forClass(TypingIndicator.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/typing.conv-1"), captor.capture());
+        assertThat(captor.getAllValues()).extracting(TypingIndicator::getIsTyping).containsExactly(true, false);
+        assertThat(captor.getAllValues().get(1).getUserId()).isEqualTo(1L);
+    }
+
+    @Test
+    void onTyping_nonParticipant_isRejected() {
+        when(conversationRepository.findByIdAndStatus("conv-1", EntityStatus.ACTIVE))
+                .thenReturn(Optional.of(conversation(2L, 3L)));
+
+        typingIndicatorService.onTyping(1L, indicator("conv-1", true));
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        assertThat(meterRegistry.counter("chat.typing.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void expireIdleTyping_relaysStopForExpiredState() {
+        typingIndicatorService = new TypingIndicatorService(
+                messagingTemplate, conversationRepository, meterRegistry, 60_000, 0);
+        when(conversationRepository.findByIdAndStatus("conv-1", EntityStatus.ACTIVE))
+                .thenReturn(Optional.of(conversation(1L, 2L)));
+
+        typingIndicatorService.onTyping(1L, indicator("conv-1", true));
+        typingIndicatorService.expireIdleTyping();
+        typingIndicatorService.expireIdleTyping();
+
+        ArgumentCaptor<TypingIndicator> captor = ArgumentCaptor.forClass(TypingIndicator.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/typing.conv-1"), captor.capture());
+        assertThat(captor.getAllValues()).extracting(TypingIndicator::getIsTyping).containsExactly(true, false);
+    }
+
+    private TypingIndicator indicator(String conversationId, boolean isTyping) {
+        TypingIndicator indicator = new TypingIndicator();
+        indicator.setConversationId(conversationId);
+        indicator.setUsername("user");
+        indicator.setIsTyping(isTyping);
+        return indicator;
+    }
+
+    private Conversation conversation(Long... participantIds) {
+        Conversation conversation = new Conversation();
+        conversation.setId("conv-1");
+        conversation.setParticipantIds(List.of(participantIds));
+        conversation.setStatus(EntityStatus.ACTIVE);
+        return conversation;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.document.UserDeletion;
+import com.example.demo.entities.User;
+import com.example.demo.enums.EntityStatus;
+import com.example.demo.repository.jpa.UserFollowRepository;
+import com.example.demo.repository.jpa.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserContentCascadeTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ChatService chatService;
+
+    @Mock
+    private CommentCountBuffer commentCountBuffer;
+
+    @Mock
+    private PostLikeCounter postLikeCounter;
+
+    @Mock
+    private PostFeedCache postFeedCache;
+
+    @Mock
+    private FollowService followService;
+
+    @Mock
+    private UserFollowRepository userFollowRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @InjectMocks
+    private UserContentCascade userContentCascade;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        userContentCascade.shutdown();
+    }
+
+    @Test
+    void start_InTransaction_RecordsNothingUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        userContentCascade.start(1L);
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void start_RolledBack_NeverRecords() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        userContentCascade.start(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void start_AfterCommit_RecordsCascade() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        userContentCascade.start(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(UserDeletion.class));
+    }
+
+    @Test
+    void run_UserNoLongerDeleted_DropsRecordWithoutCascading() {
+        when(jobLockService.tryAcquire(eq("user-deletion:1"), any())).thenReturn(true);
+        when(mongoTemplate.findById(1L, UserDeletion.class)).thenReturn(UserDeletion.builder()
+                .id(1L).phase(UserDeletion.Phase.POSTS).build());
+        User restored = new User();
+        restored.setId(1L);
+        restored.setStatus(EntityStatus.ACTIVE);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(restored));
+
+        userContentCascade.run(1L);
+
+        verify(mongoTemplate).remove(any(Query.class), eq(UserDeletion.class));
+        verify(mongoTemplate, never()).save(any(UserDeletion.class));
+        verify(chatService, never()).tombstoneMessagesOf(any(), anyInt());
+        verify(jobLockService).release("user-deletion:1");
+    }
+}
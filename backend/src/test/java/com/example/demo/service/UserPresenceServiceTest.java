@@ -0,0 +1,111 @@
+package com.example.demo.service;
+
+import com.example.demo.entities.User;
+import com.example.demo.repository.jpa.UserRepository;
+import com.example.demo.repository.mongo.ConversationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserPresenceServiceTest {
+
+    @Mock
+    private UserChannelService userChannelService;
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserPresenceService userPresenceService;
+
+    @Test
+    void userDisconnected_DefersLastSeenWrite() {
+        userPresenceService.userConnected(1L, "s1");
+        userPresenceService.userDisconnected(1L, "s1");
+        userPresenceService.userConnected(1L, "s2");
+        userPresenceService.userDisconnected(1L, "s2");
+
+        assertThat(userPresenceService.pendingLastSeenCount()).isEqualTo(1);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void flushLastSeen_WritesAllPendingUsersInOneBatchWithoutLoadingThem() {
+        when(userRepository.updateLastSeen(any())).thenReturn(2);
+
+        userPresenceService.userConnected(1L, "s1");
+        userPresenceService.userConnected(2L, "s2");
+        userPresenceService.userDisconnected(1L, "s1");
+        userPresenceService.userDisconnected(2L, "s2");
+
+        userPresenceService.flushLastSeen();
+
+        ArgumentCaptor<Map<Long, Instant>> batch = ArgumentCaptor.captor();
+        verify(userRepository).updateLastSeen(batch.capture());
+        assertThat(batch.getValue()).containsOnlyKeys(1L, 2L);
+        verify(userRepository, never()).findAllById(any());
+        assertThat(userPresenceService.pendingLastSeenCount()).isZero();
+    }
+
+    @Test
+    void flushLastSeen_RolledBack_KeepsBatchForNextFlush() {
+        when(userRepository.updateLastSeen(any())).thenReturn(1);
+        userPresenceService.userConnected(1L, "s1");
+        userPresenceService.userDisconnected(1L, "s1");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userPresenceService.flushLastSeen();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(userPresenceService.pendingLastSeenCount()).isEqualTo(1);
+    }
+
+    @Test
+    void flushLastSeen_Committed_DrainsBatch() {
+        when(userRepository.updateLastSeen(any())).thenReturn(1);
+        userPresenceService.userConnected(1L, "s1");
+        userPresenceService.userDisconnected(1L, "s1");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userPresenceService.flushLastSeen();
+            assertThat(userPresenceService.pendingLastSeenCount()).isEqualTo(1);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(userPresenceService.pendingLastSeenCount()).isZero();
+    }
+
+    @Test
+    void flushLastSeen_NothingPending_SkipsDatabase() {
+        userPresenceService.flushLastSeen();
+
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -1,11 +1,20 @@
 import axiosClient from './axiosClient';
 import type { ApiResponse } from '@/types/dto/api-response.dto';
-import type { CommentDTO } from '@/types/dto/comment.dto';
+import type { CommentDTO, CommentPageDTO } from '@/types/dto/comment.dto';
 import type { CreateCommentRequest, UpdateCommentRequest } from '@/types/dto/request.dto';
 
 export const commentApi = {
-  getCommentsByPostId: async (postId: string): Promise<ApiResponse<CommentDTO[]>> => {
-    const response = await axiosClient.get<ApiResponse<CommentDTO[]>>(`/comments/post/${postId}`);
+  getCommentsByPostId: async (postId: string, cursor?: string, size = 20): Promise<ApiResponse<CommentPageDTO>> => {
+    const response = await axiosClient.get<ApiResponse<CommentPageDTO>>(`/comments/post/${postId}`, {
+      params: { cursor, size, expand: 'author' },
+    });
+    return response.data;
+  },
+
+  getReplies: async (id: string, cursor?: string, size = 20): Promise<ApiResponse<CommentPageDTO>> => {
+    const response = await axiosClient.get<ApiResponse<CommentPageDTO>>(`/comments/${id}/replies`, {
+      params: { cursor, size, expand: 'author' },
+    });
     return response.data;
   },
 
@@ -1,11 +1,20 @@
 import axiosClient from './axiosClient';
 import type { ApiResponse } from '@/types/dto/api-response.dto';
-import type { PostDTO } from '@/types/dto/post.dto';
+import type { PostDTO, PostFeedDTO } from '@/types/dto/post.dto';
 import type { CreatePostRequest, UpdatePostRequest } from '@/types/dto/request.dto';
 
 export const postApi = {
-  getAllPosts: async (): Promise<ApiResponse<PostDTO[]>> => {
-    const response = await axiosClient.get<ApiResponse<PostDTO[]>>('/posts');
+  getFeed: async (cursor?: string, size = 20): Promise<ApiResponse<PostFeedDTO>> => {
+    const response = await axiosClient.get<ApiResponse<PostFeedDTO>>('/posts', {
+      params: { cursor, size, expand: 'author' },
+    });
+    return response.data;
+  },
+
+  getTimeline: async (cursor?: string, size = 20): Promise<ApiResponse<PostFeedDTO>> => {
+    const response = await axiosClient.get<ApiResponse<PostFeedDTO>>('/posts/timeline', {
+      params: { cursor, size, expand: 'author' },
+    });
     return response.data;
   },
 
@@ -33,4 +42,14 @@ export const postApi = {
     const response = await axiosClient.delete<ApiResponse<void>>(`/posts/${id}`);
     return response.data;
   },
+
+  likePost: async (id: string): Promise<ApiResponse<void>> => {
+    const response = await axiosClient.post<ApiResponse<void>>(`/posts/${id}/like`);
+    return response.data;
+  },
+
+  unlikePost: async (id: string): Promise<ApiResponse<void>> => {
+    const response = await axiosClient.delete<ApiResponse<void>>(`/posts/${id}/like`);
+    return response.data;
+  },
 };
@@ -24,4 +24,14 @@ export const userApi = {
     const response = await axiosClient.put<ApiResponse<ProfileDTO>>(`/users/${id}/profile`, data);
     return response.data;
   },
+
+  follow: async (id: number): Promise<ApiResponse<void>> => {
+    const response = await axiosClient.post<ApiResponse<void>>(`/users/${id}/follow`);
+    return response.data;
+  },
+
+  unfollow: async (id: number): Promise<ApiResponse<void>> => {
+    const response = await axiosClient.delete<ApiResponse<void>>(`/users/${id}/follow`);
+    return response.data;
+  },
 };
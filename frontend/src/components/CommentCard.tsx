@@ -10,9 +10,18 @@ interface CommentCardProps {
 }
 
 const CommentCard = ({ comment }: CommentCardProps) => {
-  const { data: author, isLoading } = useUserProfile(comment.userId);
+  const { data: fetchedAuthor, isLoading } = useUserProfile(comment.author ? 0 : comment.userId);
 
-  if (isLoading) {
+  const author = comment.author ? {
+    id: comment.userId,
+    email: comment.author.email,
+    profile: {
+      fullName: comment.author.fullName,
+      avatarUrl: comment.author.avatarUrl,
+    }
+  } : fetchedAuthor;
+
+  if (!comment.author && isLoading) {
     return (
       <div className="flex space-x-3 py-4">
         <Skeleton className="h-10 w-10 rounded-full" />
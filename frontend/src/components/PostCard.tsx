@@ -19,7 +19,7 @@ const PostCard = ({ post }: PostCardProps) => {
   const [likeCount, setLikeCount] = useState(post.likes);
 
   const shouldFetchProfile = !post.author;
-  const { data: fetchedAuthor, isLoading } = useUserProfile(post.userId, {
+  const { data: fetchedAuthor, isLoading } = useUserProfile(shouldFetchProfile ? post.userId : 0, {
     staleTime: 5 * 60 * 1000,
   });
   
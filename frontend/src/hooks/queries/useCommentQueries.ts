@@ -1,4 +1,4 @@
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
+import { useQuery, useInfiniteQuery, useMutation, useQueryClient } from '@tanstack/react-query';
 import { commentApi } from '@/api/commentApi';
 import type { CreateCommentRequest, UpdateCommentRequest } from '@/types/dto/request.dto';
 import { postKeys } from './usePostQueries';
@@ -15,12 +15,14 @@ export const commentKeys = {
 
 // Query hooks
 export const usePostComments = (postId: string) => {
-  return useQuery({
+  return useInfiniteQuery({
     queryKey: commentKeys.list(postId),
-    queryFn: async () => {
-      const response = await commentApi.getCommentsByPostId(postId);
+    queryFn: async ({ pageParam }) => {
+      const response = await commentApi.getCommentsByPostId(postId, pageParam);
       return response.result;
     },
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => lastPage?.nextCursor ?? undefined,
     enabled: !!postId,
   });
 };
@@ -1,4 +1,4 @@
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
+import { useQuery, useInfiniteQuery, useMutation, useQueryClient } from '@tanstack/react-query';
 import { postApi } from '@/api/postApi';
 import type { CreatePostRequest, UpdatePostRequest } from '@/types/dto/request.dto';
 
@@ -20,12 +20,14 @@ export const postKeys = {
 
 // Query hooks
 export const useAllPosts = () => {
-  return useQuery({
+  return useInfiniteQuery({
     queryKey: postKeys.list(),
-    queryFn: async () => {
-      const response = await postApi.getAllPosts();
+    queryFn: async ({ pageParam }) => {
+      const response = await postApi.getFeed(pageParam);
       return response.result;
     },
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => lastPage?.nextCursor ?? undefined,
   });
 };
 
@@ -6,10 +6,12 @@ import { Card } from "@/components/ui/card";
 import { Skeleton } from "@/components/ui/skeleton";
 import { Alert, AlertDescription } from "@/components/ui/alert";
 import { AlertCircle } from "lucide-react";
+import { Button } from "@/components/ui/button";
 
 const Home = () => {
-  // Fetch all posts
-  const { data: posts, isLoading, error } = useAllPosts();
+  // Fetch the feed one keyset page at a time
+  const { data, isLoading, error, fetchNextPage, hasNextPage, isFetchingNextPage } = useAllPosts();
+  const posts = data?.pages.flatMap((page) => page?.posts ?? []);
 
   return (
     <div className="min-h-screen bg-background">
@@ -48,9 +50,21 @@ const Home = () => {
           {!isLoading && !error && (
             <div className="space-y-4">
               {posts && posts.length > 0 ? (
-                posts.map((post) => (
-                  <PostCard key={post.id} post={post} />
-                ))
+                <>
+                  {posts.map((post) => (
+                    <PostCard key={post.id} post={post} />
+                  ))}
+                  {hasNextPage && (
+                    <Button
+                      variant="outline"
+                      className="w-full"
+                      onClick={() => fetchNextPage()}
+                      disabled={isFetchingNextPage}
+                    >
+                      {isFetchingNextPage ? "Loading..." : "Load more"}
+                    </Button>
+                  )}
+                </>
               ) : (
                 <Card className="p-8">
                   <p className="text-center text-muted-foreground">
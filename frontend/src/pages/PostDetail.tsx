@@ -20,7 +20,14 @@ const PostDetail = () => {
   
   const { data: post, isLoading: postLoading, error: postError } = usePost(identifier);
   const { data: author, isLoading: authorLoading } = useUserProfile(post?.userId || 0);
-  const { data: comments, isLoading: commentsLoading } = usePostComments(post?.id || "");
+  const {
+    data: commentPages,
+    isLoading: commentsLoading,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = usePostComments(post?.id || "");
+  const comments = commentPages?.pages.flatMap((page) => page?.comments ?? []);
 
   if (postLoading || authorLoading) {
     return (
@@ -145,6 +152,16 @@ const PostDetail = () => {
                 {comments.map((comment) => (
                   <CommentCard key={comment.id} comment={comment} />
                 ))}
+                {hasNextPage && (
+                  <Button
+                    variant="outline"
+                    className="w-full"
+                    onClick={() => fetchNextPage()}
+                    disabled={isFetchingNextPage}
+                  >
+                    {isFetchingNextPage ? "Loading..." : "Load more comments"}
+                  </Button>
+                )}
               </div>
             )}
 
@@ -18,8 +18,56 @@ export const WebSocketProvider = ({ children }: WebSocketProviderProps) => {
   const { updateConversation, addMessage, incrementUnreadCount } = useChatStore();
   const isInitialized = useRef(false);
   const subscriptionIds = useRef<string[]>([]);
+  const largeGroupSubscriptions = useRef<Map<string, string>>(new Map());
+  const conversationUpdateHandler = useRef<((update: ConversationUpdateMessage) => void) | null>(null);
   const previousToken = useRef<string | null>(null);
 
+  // Large groups publish list updates once on a shared topic instead of per member, so the
+  // topic set has to follow the conversations in the store as they are added or removed
+  const syncLargeGroupSubscriptions = () => {
+    const handler = conversationUpdateHandler.current;
+    if (!handler || !websocketService.isConnected()) {
+      return;
+    }
+
+    const largeGroupIds = new Set(
+      useChatStore.getState().conversations
+        .filter(conversation => conversation.largeGroup)
+        .map(conversation => conversation.id)
+    );
+
+    largeGroupSubscriptions.current.forEach((subscriptionId, conversationId) => {
+      if (!largeGroupIds.has(conversationId)) {
+        websocketService.unsubscribe(subscriptionId);
+        largeGroupSubscriptions.current.delete(conversationId);
+      }
+    });
+
+    largeGroupIds.forEach(conversationId => {
+      if (!largeGroupSubscriptions.current.has(conversationId)) {
+        largeGroupSubscriptions.current.set(
+          conversationId,
+          websocketService.subscribe(`/topic/conversation-updates.${conversationId}`, handler)
+        );
+      }
+    });
+  };
+
+  const clearLargeGroupSubscriptions = () => {
+    largeGroupSubscriptions.current.forEach(subscriptionId => {
+      websocketService.unsubscribe(subscriptionId);
+    });
+    largeGroupSubscriptions.current.clear();
+  };
+
+  useEffect(() => {
+    return useChatStore.subscribe((state, previousState) => {
+      if (state.conversations !== previousState.conversations) {
+        syncLargeGroupSubscriptions();
+      }
+    });
+  }, []);
+
   // Handle token refresh - reconnect WebSocket with new token
   useEffect(() => {
     if (!isAuthenticated || !accessToken || !userId) {
@@ -35,6 +83,7 @@ export const WebSocketProvider = ({ children }: WebSocketProviderProps) => {
             websocketService.unsubscribe(id);
           });
           subscriptionIds.current = [];
+          clearLargeGroupSubscriptions();
           
           await websocketService.reconnect(accessToken, userId);
           
@@ -54,8 +103,8 @@ export const WebSocketProvider = ({ children }: WebSocketProviderProps) => {
   }, [accessToken, isAuthenticated, userId, queryClient]);
 
   const setupSubscriptions = async () => {
-    // Subscribe to user-specific presence updates using RabbitMQ STOMP format
-    const presenceSub = websocketService.subscribe(`/queue/presence.${userId}`, (presence: UserPresenceResponse) => {
+    // Routed per node by the backend like /user-channel.messages; no per-user broker queue
+    const presenceSub = websocketService.subscribe('/user-channel.presence', (presence: UserPresenceResponse) => {
       console.log('[WebSocketProvider] Presence update:', presence);
       if (presence.userId && presence.status) {
         const isOnline = presence.status === 'ONLINE';
@@ -72,9 +121,7 @@ export const WebSocketProvider = ({ children }: WebSocketProviderProps) => {
     });
     subscriptionIds.current.push(conversationSub);
 
-    // User queue subscription is now handled automatically by WebSocketService
-    // when connecting with userId for conversation list updates
-    websocketService.subscribeToUserQueue(userId!, (update: ConversationUpdateMessage) => {
+    const handleConversationUpdate = (update: ConversationUpdateMessage) => {
       console.log('[WebSocketProvider] Conversation update received for conversation list:', update);
       
       const currentActiveConversation = useChatStore.getState().activeConversation;
@@ -95,7 +142,14 @@ export const WebSocketProvider = ({ children }: WebSocketProviderProps) => {
       queryClient.invalidateQueries({ 
         queryKey: chatKeys.conversations() 
       });
-    });
+    };
+
+    // User queue subscription is now handled automatically by WebSocketService
+    // when connecting with userId for conversation list updates
+    websocketService.subscribeToUserQueue(userId!, handleConversationUpdate);
+
+    conversationUpdateHandler.current = handleConversationUpdate;
+    syncLargeGroupSubscriptions();
   };
 
   useEffect(() => {
@@ -145,6 +199,8 @@ export const WebSocketProvider = ({ children }: WebSocketProviderProps) => {
         websocketService.unsubscribe(id);
       });
       subscriptionIds.current = [];
+      clearLargeGroupSubscriptions();
+      conversationUpdateHandler.current = null;
       websocketService.disconnect();
       isInitialized.current = false;
     };
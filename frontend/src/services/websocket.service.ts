@@ -124,12 +124,17 @@ class WebSocketService {
       this.userQueueSubscription = null;
     }
 
-    const destination = `/queue/messages.${userId}`;
+    // Routed per node by the backend; the session's user is taken from the CONNECT token
+    const destination = '/user-channel.messages';
     
     this.userQueueSubscription = this.client.subscribe(destination, (message: IMessage) => {
       try {
         const parsedMessage = JSON.parse(message.body);
         console.log('[WebSocket] User queue message received (conversation list update):', parsedMessage);
+
+        if (parsedMessage?.lastMessage?.id && parsedMessage.conversationId) {
+          this.acknowledgeDelivery(parsedMessage.conversationId, [parsedMessage.lastMessage.id]);
+        }
         
         // Call the provided callback if available
         if (callback) {
@@ -165,6 +170,9 @@ class WebSocketService {
       try {
         const parsedMessage = JSON.parse(message.body);
         console.log('[WebSocket] Conversation message received (active chat window):', parsedMessage);
+        if (parsedMessage?.id) {
+          this.acknowledgeDelivery(conversationId, [parsedMessage.id]);
+        }
         callback(parsedMessage);
       } catch (error) {
         console.error('[WebSocket] Error parsing conversation message:', error);
@@ -232,6 +240,18 @@ class WebSocketService {
     console.log(`[WebSocket] Message sent to ${destination}`);
   }
 
+  // Delivery ack (SENT -> DELIVERED); the server coalesces these per conversation
+  acknowledgeDelivery(conversationId: string, messageIds: string[]): void {
+    if (!this.client?.connected || messageIds.length === 0) {
+      return;
+    }
+
+    this.client.publish({
+      destination: '/app/chat.ack',
+      body: JSON.stringify({ conversationId, messageIds })
+    });
+  }
+
   disconnect(): void {
     if (this.client) {
       // Unsubscribe from all regular subscriptions
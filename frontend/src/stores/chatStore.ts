@@ -105,12 +105,14 @@ export const useChatStore = create<ChatState>((set, get) => ({
           },
           unreadCount: update.unreadCount,
           updatedAt: update.updatedAt,
-          participants: update.participants.map(p => ({
-            userId: p.userId,
-            username: p.username,
-            email: p.displayName || p.username,
-            joinedAt: existingConv.participants.find(ep => ep.userId === p.userId)?.joinedAt || new Date().toISOString()
-          }))
+          participants: update.participants
+            ? update.participants.map(p => ({
+                userId: p.userId,
+                username: p.username,
+                email: p.displayName || p.username,
+                joinedAt: existingConv.participants.find(ep => ep.userId === p.userId)?.joinedAt || new Date().toISOString()
+              }))
+            : existingConv.participants
         };
         
         // Sort by updatedAt (most recent first)
@@ -125,7 +127,7 @@ export const useChatStore = create<ChatState>((set, get) => ({
           id: update.conversationId,
           type: update.conversationType,
           name: update.conversationName,
-          participants: update.participants.map(p => ({
+          participants: (update.participants ?? []).map(p => ({
             userId: p.userId,
             username: p.username,
             email: p.displayName || p.username,
@@ -36,6 +36,16 @@ export interface MessageStatusResponse {
   timestamp: string;
 }
 
+// Frames on /topic/receipts.{conversationId} carry MessageReceiptEvent[]
+export interface MessageReceiptEvent {
+  conversationId: string;
+  userId: number;
+  status: 'SENT' | 'DELIVERED' | 'READ';
+  messageIds?: string[];
+  messageCount: number;
+  timestamp: string;
+}
+
 export interface ConversationResponse {
   id: string;
   type: 'DIRECT' | 'GROUP';
@@ -45,6 +55,7 @@ export interface ConversationResponse {
   unreadCount: number;
   createdAt: string;
   updatedAt: string;
+  largeGroup?: boolean;
 }
 
 export interface ParticipantResponse {
@@ -1,7 +1,17 @@
+import type { PostAuthorDTO } from './post.dto';
+
 export interface CommentDTO {
   id: string;
   postId: string;
+  parentId?: string | null;
   userId: number;
+  author?: PostAuthorDTO;
   content: string;
   createdAt: string;
+  repliesCount?: number;
+}
+
+export interface CommentPageDTO {
+  comments: CommentDTO[];
+  nextCursor?: string | null;
 }
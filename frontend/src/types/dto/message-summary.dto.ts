@@ -15,7 +15,8 @@ export interface ConversationUpdateMessage {
   lastMessage: MessageSummary;
   unreadCount: number;
   updatedAt: string;
-  participants: Array<{
+  // Omitted for large groups
+  participants?: Array<{
     userId: number;
     username: string;
     displayName: string;
@@ -14,7 +14,7 @@ export interface PostDTO {
   id: string;
   slug: string;
   userId: number;
-  author?: PostAuthorDTO; // Optional for backward compatibility
+  author?: PostAuthorDTO; // Present when requested with expand=author
   content: string;
   media: MediaItemDTO[];
   createdAt: string;
@@ -22,3 +22,8 @@ export interface PostDTO {
   likes: number;
   commentsCount: number;
 }
+
+export interface PostFeedDTO {
+  posts: PostDTO[];
+  nextCursor?: string | null;
+}
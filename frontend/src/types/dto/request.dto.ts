@@ -12,6 +12,7 @@ export interface UpdatePostRequest {
 
 export interface CreateCommentRequest {
   postId: string;
+  parentId?: string;
   content: string;
 }
 